@@ -24,7 +24,9 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class LogFilter extends OncePerRequestFilter {
   private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-  private static final  DecimalFormat REQUEST_RUNTIME_FORMAT = new DecimalFormat("#.###", DecimalFormatSymbols.getInstance(Locale.ENGLISH));
+  // DecimalFormat is not thread-safe, and requests are logged concurrently
+  private static final ThreadLocal<DecimalFormat> REQUEST_RUNTIME_FORMAT =
+      ThreadLocal.withInitial(() -> new DecimalFormat("#.###", DecimalFormatSymbols.getInstance(Locale.ENGLISH)));
   private static final Long NANOSECONDS_PER_MS = 1000_000L;
   private static final List<String> MUTED_PATHS = Arrays.asList(
       "/swagger-ui/",
@@ -76,7 +78,8 @@ public class LogFilter extends OncePerRequestFilter {
     } else {
       b.append(" NO RESPONSE");
     }
-    var time = REQUEST_RUNTIME_FORMAT.format(runtime / NANOSECONDS_PER_MS);
+    // fractions of milliseconds are kept, so that the logged times of fast requests can still be compared
+    var time = REQUEST_RUNTIME_FORMAT.get().format(runtime / (double) NANOSECONDS_PER_MS);
     MDC.put("duration", time);
     b.append(" time=").append(time).append("ms");
     logWithRightCategory(logStatus, b.toString());
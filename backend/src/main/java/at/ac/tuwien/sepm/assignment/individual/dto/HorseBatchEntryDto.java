@@ -0,0 +1,14 @@
+package at.ac.tuwien.sepm.assignment.individual.dto;
+
+/**
+ * DTO for one horse of a batch create.
+ * Besides the persisted parents given in {@code horse}, a horse can have
+ * other horses of the same batch as parents, which are referred to by their {@code ref}.
+ */
+public record HorseBatchEntryDto(
+    String ref,
+    HorseCreateDto horse,
+    String motherRef,
+    String fatherRef
+) {
+}
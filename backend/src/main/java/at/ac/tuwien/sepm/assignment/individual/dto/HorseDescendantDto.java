@@ -0,0 +1,21 @@
+package at.ac.tuwien.sepm.assignment.individual.dto;
+
+import at.ac.tuwien.sepm.assignment.individual.type.Sex;
+import java.time.LocalDate;
+
+/**
+ * DTO to encapsulate a descendant of a horse.
+ * Contains id, name, dateOfBirth, sex, the ids of mother and father,
+ * and the generation of the descendant, the children of the horse being the first one
+ */
+public record HorseDescendantDto(
+        Long id,
+        String name,
+        LocalDate dateOfBirth,
+        Sex sex,
+        Long motherId,
+        Long fatherId,
+        int generation
+) {
+
+}
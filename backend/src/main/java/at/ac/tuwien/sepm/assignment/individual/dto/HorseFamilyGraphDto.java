@@ -0,0 +1,15 @@
+package at.ac.tuwien.sepm.assignment.individual.dto;
+
+import java.util.List;
+
+/**
+ * DTO to encapsulate the family tree as a graph.
+ * Contains the id of the root horse and every horse of the family tree
+ * exactly once as {@link HorseFamilyGraphNodeDto}, even if it is an ancestor on more than one path.
+ */
+public record HorseFamilyGraphDto(
+        Long rootId,
+        List<HorseFamilyGraphNodeDto> horses
+) {
+
+}
@@ -0,0 +1,20 @@
+package at.ac.tuwien.sepm.assignment.individual.dto;
+
+import at.ac.tuwien.sepm.assignment.individual.type.Sex;
+import java.time.LocalDate;
+
+/**
+ * DTO to encapsulate a horse in a {@link HorseFamilyGraphDto}
+ * Contains id, name, dateOfBirth, sex
+ * and the ids of mother and father, if they are part of the family tree
+ */
+public record HorseFamilyGraphNodeDto(
+        Long id,
+        String name,
+        LocalDate dateOfBirth,
+        Sex sex,
+        Long motherId,
+        Long fatherId
+) {
+
+}
@@ -0,0 +1,46 @@
+package at.ac.tuwien.sepm.assignment.individual.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the results of a horse search, which are sorted by name and ID.
+ * A search, that is continued at a cursor, only returns horses sorted after it.
+ * Clients only see the cursor as opaque token, see {@link #encode()} and {@link #valueOf(String)}.
+ *
+ * @param name the name of the last horse of the previous page
+ * @param id the ID of the last horse of the previous page
+ */
+public record HorseSearchCursor(
+    String name,
+    long id
+) {
+  private static final char SEPARATOR = ':';
+
+  /**
+   * Encode this cursor as opaque token.
+   *
+   * @return the token, that is safe to use in URLs
+   */
+  public String encode() {
+    String plain = Long.toString(id) + SEPARATOR + name;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decode a token created by {@link #encode()}.
+   * This method is also used by spring to convert the query parameter to a cursor.
+   *
+   * @param token the token to decode
+   * @return the decoded cursor
+   * @throws IllegalArgumentException if the token was not created by {@link #encode()}
+   */
+  public static HorseSearchCursor valueOf(String token) {
+    String plain = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    int separator = plain.indexOf(SEPARATOR);
+    if (separator < 0) {
+      throw new IllegalArgumentException("Malformed search cursor");
+    }
+    return new HorseSearchCursor(plain.substring(separator + 1), Long.parseLong(plain.substring(0, separator)));
+  }
+}
@@ -1,5 +1,6 @@
 package at.ac.tuwien.sepm.assignment.individual.dto;
 
+import at.ac.tuwien.sepm.assignment.individual.type.MatchMode;
 import at.ac.tuwien.sepm.assignment.individual.type.Sex;
 import java.time.LocalDate;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -7,6 +8,9 @@ import org.springframework.format.annotation.DateTimeFormat;
 /**
  * DTO to bundle the query parameters used in searching horses.
  * Each field can be null, in which case this field is not filtered by.
+ * The results are sorted by name and ID. If {@code cursor} is given,
+ * only horses sorted after the cursor are returned.
+ * {@code nameMatch} specifies how {@code name} and {@code ownerName} are matched, by default as substrings.
  */
 public record HorseSearchDto(
     String name,
@@ -15,6 +19,8 @@ public record HorseSearchDto(
     LocalDate bornBefore,
     Sex sex,
     String ownerName,
-    Integer maxAmount
+    Integer maxAmount,
+    HorseSearchCursor cursor,
+    MatchMode nameMatch
 ) {
 }
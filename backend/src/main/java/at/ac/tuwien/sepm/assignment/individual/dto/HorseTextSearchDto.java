@@ -0,0 +1,14 @@
+package at.ac.tuwien.sepm.assignment.individual.dto;
+
+/**
+ * DTO to encapsulate parameters for a full-text search of horses.
+ * A horse, whose name or description contains a word starting with a word of {@code text}, is considered matched.
+ *
+ * @param text the words to search for
+ * @param maxAmount the maximum number of horses to return, the best matches first
+ */
+public record HorseTextSearchDto(
+    String text,
+    Integer maxAmount
+) {
+}
@@ -1,14 +1,19 @@
 package at.ac.tuwien.sepm.assignment.individual.dto;
 
+import at.ac.tuwien.sepm.assignment.individual.type.MatchMode;
+
 /**
  * DTO to encapsulate parameters for Owner search.
- * An owner, whose name has {@code name} as a substring is considered matched.
+ * An owner, whose name has {@code name} as a substring is considered matched,
+ * or, if {@code nameMatch} is {@link MatchMode#PREFIX}, whose name starts with {@code name}.
  *
  * @param name substring of the owner's name
  * @param maxAmount the maximum number of owners to return, even if there are more matches
+ * @param nameMatch how {@code name} is matched, {@link MatchMode#SUBSTRING} if not given
  */
 public record OwnerSearchDto(
     String name,
-    Integer maxAmount // needs to be present always
+    Integer maxAmount, // needs to be present always
+    MatchMode nameMatch
 ) {
 }
@@ -0,0 +1,20 @@
+package at.ac.tuwien.sepm.assignment.individual.entity;
+
+/**
+ * Everything stored in the persistent data store, that is needed to check the creation or update of a horse,
+ * read at once.
+ *
+ * @param horse the stored horse with ID, date of birth and sex, {@code null} if it does not exist (yet)
+ * @param hasChildren whether the stored horse is the mother or father of another horse
+ * @param owner the referenced owner, {@code null} if none is referenced or it does not exist
+ * @param mother the referenced mother with ID, name, date of birth and sex, {@code null} if none is referenced or it does not exist
+ * @param father the referenced father with ID, name, date of birth and sex, {@code null} if none is referenced or it does not exist
+ */
+public record HorseValidationContext(
+    Horse horse,
+    boolean hasChildren,
+    Owner owner,
+    Horse mother,
+    Horse father
+) {
+}
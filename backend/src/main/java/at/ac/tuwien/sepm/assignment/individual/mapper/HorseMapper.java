@@ -1,13 +1,26 @@
 package at.ac.tuwien.sepm.assignment.individual.mapper;
 
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseDetailDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseFamilyGraphDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseFamilyGraphNodeDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseFamilyTreeDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseListDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.OwnerDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.ParentDto;
 import at.ac.tuwien.sepm.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepm.assignment.individual.entity.HorseValidationContext;
+import at.ac.tuwien.sepm.assignment.individual.entity.Owner;
 import at.ac.tuwien.sepm.assignment.individual.exception.FatalException;
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -78,6 +91,23 @@ public class HorseMapper {
     );
   }
 
+  /**
+   * Convert a horse entity object to a {@link HorseDetailDto}, taking its owner and parents from {@code context}.
+   * The context needs to contain the owner and the parents referenced by {@code horse}.
+   *
+   * @param horse the horse to convert
+   * @param context the stored context of the horse, as read for its validation
+   * @return the converted {@link HorseDetailDto}
+   */
+  public HorseDetailDto entityToDetailDto(Horse horse, HorseValidationContext context) {
+    LOG.trace("entityToDetailDto({}, {})", horse, context);
+    Owner owner = context.owner();
+    Map<Long, OwnerDto> owners = owner == null
+        ? Map.of()
+        : Map.of(owner.getId(), new OwnerDto(owner.getId(), owner.getFirstName(), owner.getLastName(), owner.getEmail()));
+    return entityToDetailDto(horse, owners, parentMap(context.mother()), parentMap(context.father()));
+  }
+
   /**
    * Convert a horse entity object to a {@link ParentDto}.
    *
@@ -97,6 +127,113 @@ public class HorseMapper {
     );
   }
 
+  /**
+   * Convert the horses of a family tree to a {@link HorseFamilyTreeDto} with the horse {@code rootId} at its root.
+   * The parents of every horse are looked up by their ID in {@code family},
+   * parents that are not contained in {@code family} are left out of the tree.
+   * <p>
+   * The tree is assembled iteratively, each horse of {@code family} is converted at most once.
+   * An ancestor that is reached on more than one path is represented by the same {@link HorseFamilyTreeDto}.
+   * A parent reference that would lead back to a horse that is already on the current path is left out.
+   * </p>
+   *
+   * @param family the horses of the family tree
+   * @param rootId the ID of the horse at the root of the family tree
+   * @return the converted {@link HorseFamilyTreeDto}, or {@code null} if {@code family} does not contain the root horse
+   */
+  public HorseFamilyTreeDto entitiesToFamilyTreeDto(Collection<Horse> family, long rootId) {
+    LOG.trace("entitiesToFamilyTreeDto(rootId:{}, {} horses)", rootId, family.size());
+    Map<Long, Horse> horses = new HashMap<>(2 * family.size());
+    for (Horse horse : family) {
+      horses.put(horse.getId(), horse);
+    }
+    Horse root = horses.get(rootId);
+    if (root == null) {
+      return null;
+    }
+
+    // depth first, a horse is converted after both of its parents are converted
+    Map<Long, HorseFamilyTreeDto> converted = new HashMap<>(2 * family.size());
+    Set<Long> onPath = new HashSet<>();
+    Deque<Horse> path = new ArrayDeque<>();
+    path.push(root);
+    onPath.add(rootId);
+    while (!path.isEmpty()) {
+      Horse horse = path.peek();
+      Horse parent = unconvertedParent(horse.getMotherId(), horses, converted, onPath);
+      if (parent == null) {
+        parent = unconvertedParent(horse.getFatherId(), horses, converted, onPath);
+      }
+      if (parent != null) {
+        path.push(parent);
+        onPath.add(parent.getId());
+        continue;
+      }
+
+      path.pop();
+      onPath.remove(horse.getId());
+      converted.put(horse.getId(), new HorseFamilyTreeDto(
+          horse.getId(),
+          horse.getName(),
+          horse.getDateOfBirth(),
+          horse.getSex(),
+          horse.getMotherId() == null ? null : converted.get(horse.getMotherId()),
+          horse.getFatherId() == null ? null : converted.get(horse.getFatherId())
+      ));
+    }
+    return converted.get(rootId);
+  }
+
+  /**
+   * Convert the horses of a family tree to a {@link HorseFamilyGraphDto} with the horse {@code rootId} at its root.
+   * Every horse of {@code family} is converted to exactly one {@link HorseFamilyGraphNodeDto}.
+   * Parent IDs referring to horses, that are not contained in {@code family}, are left out.
+   *
+   * @param family the horses of the family tree
+   * @param rootId the ID of the horse at the root of the family tree
+   * @return the converted {@link HorseFamilyGraphDto}, or {@code null} if {@code family} does not contain the root horse
+   */
+  public HorseFamilyGraphDto entitiesToFamilyGraphDto(Collection<Horse> family, long rootId) {
+    LOG.trace("entitiesToFamilyGraphDto(rootId:{}, {} horses)", rootId, family.size());
+    Set<Long> ids = new HashSet<>(2 * family.size());
+    for (Horse horse : family) {
+      ids.add(horse.getId());
+    }
+    if (!ids.contains(rootId)) {
+      return null;
+    }
+
+    List<HorseFamilyGraphNodeDto> horses = new ArrayList<>(ids.size());
+    Set<Long> converted = new HashSet<>(2 * family.size());
+    for (Horse horse : family) {
+      if (converted.add(horse.getId())) {
+        horses.add(new HorseFamilyGraphNodeDto(
+            horse.getId(),
+            horse.getName(),
+            horse.getDateOfBirth(),
+            horse.getSex(),
+            ids.contains(horse.getMotherId()) ? horse.getMotherId() : null,
+            ids.contains(horse.getFatherId()) ? horse.getFatherId() : null
+        ));
+      }
+    }
+    return new HorseFamilyGraphDto(rootId, horses);
+  }
+
+  private Horse unconvertedParent(Long parentId, Map<Long, Horse> horses,
+                                  Map<Long, HorseFamilyTreeDto> converted, Set<Long> onPath) {
+    if (parentId == null || converted.containsKey(parentId) || onPath.contains(parentId)) {
+      return null;
+    }
+    return horses.get(parentId);
+  }
+
+  private Map<Long, ParentDto> parentMap(Horse parent) {
+    return parent == null
+        ? Map.of()
+        : Map.of(parent.getId(), entityToParentDto(parent));
+  }
+
   private OwnerDto getOwner(Horse horse, Map<Long, OwnerDto> owners) {
     LOG.trace("getOwner({})", owners);
     OwnerDto owner = null;
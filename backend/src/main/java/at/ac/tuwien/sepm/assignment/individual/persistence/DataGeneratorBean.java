@@ -3,9 +3,11 @@ package at.ac.tuwien.sepm.assignment.individual.persistence;
 import jakarta.annotation.PostConstruct;
 import java.lang.invoke.MethodHandles;
 import java.sql.SQLException;
+import java.util.List;
 import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.jdbc.datasource.init.ScriptUtils;
@@ -14,27 +16,86 @@ import org.springframework.stereotype.Component;
 /**
  * This component is only created, if the profile {@code datagen} is active
  * You can activate this profile by adding {@code -Dspring.profiles.active=datagen} to your maven command line
+ * <p>
+ * By default, only the sample data of {@code sql/insertData.sql} is inserted.
+ * With {@code datagen.mode=synthetic}, a generated pedigree of {@code datagen.synthetic.horses} horses
+ * and {@code datagen.synthetic.owners} owners is inserted in addition, see {@link SyntheticDataGenerator}.
+ * </p>
+ * <p>
+ * The generated pedigree is further configured by the settings {@code datagen.synthetic.*}:
+ * </p>
+ * <ul>
+ *   <li>{@code generations}: the number of generations, that the generated horses are split into</li>
+ *   <li>{@code threads}: the number of threads, that insert the generated data</li>
+ *   <li>{@code batch-size}: the number of rows inserted by one batch</li>
+ *   <li>{@code seed}: the seed, that the generated data is derived from</li>
+ * </ul>
  */
 @Component
 @Profile("datagen")
 public class DataGeneratorBean {
   private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
   private final DataSource dataSource;
+  private final HorseDao horseDao;
+  private final PedigreeIndex pedigreeIndex;
+  private final HorseTextIndex textIndex;
+  private final OwnerDao ownerDao;
+  private final OwnerNameIndex ownerNameIndex;
+  private final OwnerCache ownerCache;
+  private final List<HorseChangeListener> horseChangeListeners;
+  private final String mode;
+  private final SyntheticDataGenerator syntheticDataGenerator;
+  private final int syntheticOwners;
+  private final int syntheticHorses;
+  private final int syntheticGenerations;
+  private final long syntheticSeed;
 
-  /**
-   * Executed once when the component is instantiated. Inserts some dummy data.
-   */
-  public DataGeneratorBean(DataSource dataSource) {
+  public DataGeneratorBean(DataSource dataSource, HorseDao horseDao, PedigreeIndex pedigreeIndex, HorseTextIndex textIndex,
+                           OwnerDao ownerDao, OwnerNameIndex ownerNameIndex, OwnerCache ownerCache,
+                           List<HorseChangeListener> horseChangeListeners,
+                           @Value("${datagen.mode:sample}") String mode,
+                           @Value("${datagen.synthetic.owners:10000}") int syntheticOwners,
+                           @Value("${datagen.synthetic.horses:100000}") int syntheticHorses,
+                           @Value("${datagen.synthetic.generations:10}") int syntheticGenerations,
+                           @Value("${datagen.synthetic.threads:4}") int syntheticThreads,
+                           @Value("${datagen.synthetic.batch-size:1000}") int syntheticBatchSize,
+                           @Value("${datagen.synthetic.seed:1}") long syntheticSeed) {
     this.dataSource = dataSource;
+    this.horseDao = horseDao;
+    this.pedigreeIndex = pedigreeIndex;
+    this.textIndex = textIndex;
+    this.ownerDao = ownerDao;
+    this.ownerNameIndex = ownerNameIndex;
+    this.ownerCache = ownerCache;
+    this.horseChangeListeners = horseChangeListeners;
+    if (!mode.equals("sample") && !mode.equals("synthetic")) {
+      throw new IllegalArgumentException("Unknown data generation mode: " + mode);
+    }
+    this.mode = mode;
+    this.syntheticDataGenerator = new SyntheticDataGenerator(dataSource, syntheticThreads, syntheticBatchSize);
+    this.syntheticOwners = syntheticOwners;
+    this.syntheticHorses = syntheticHorses;
+    this.syntheticGenerations = syntheticGenerations;
+    this.syntheticSeed = syntheticSeed;
   }
 
+  /**
+   * Executed once when the component is instantiated. Inserts some dummy data.
+   *
+   * @throws SQLException if the sample data can not be inserted
+   */
   @PostConstruct
   public void generateData() throws SQLException {
     LOGGER.info("Generating data…");
     try (var connection = dataSource.getConnection()) {
       ScriptUtils.executeSqlScript(connection, new ClassPathResource("sql/insertData.sql"));
-      LOGGER.info("Finished generating data without error.");
     }
+    if (mode.equals("synthetic")) {
+      syntheticDataGenerator.generate(syntheticOwners, syntheticHorses, syntheticGenerations, syntheticSeed);
+    }
+    LOGGER.info("Finished generating data without error.");
+    // the script and the generator bypass the DAO, so the indexes have to be reloaded, and the caches emptied
+    rebuildIndexes();
   }
 
   public void deleteData() throws SQLException {
@@ -43,5 +104,15 @@ public class DataGeneratorBean {
       ScriptUtils.executeSqlScript(connection, new ClassPathResource("sql/cleanData.sql"));
       LOGGER.info("Finished deleting data without error.");
     }
+    rebuildIndexes();
+  }
+
+  private void rebuildIndexes() {
+    var horses = horseDao.getAll();
+    pedigreeIndex.rebuild(horses);
+    textIndex.rebuild(horses);
+    horseChangeListeners.forEach(HorseChangeListener::allHorsesChanged);
+    ownerCache.clear();
+    ownerNameIndex.rebuild(ownerDao.getAll());
   }
 }
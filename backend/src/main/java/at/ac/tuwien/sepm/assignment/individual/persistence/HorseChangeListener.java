@@ -0,0 +1,25 @@
+package at.ac.tuwien.sepm.assignment.individual.persistence;
+
+/**
+ * Notified of the changes of the stored horses, to keep data derived from them up to date.
+ * <p>
+ * Every bean implementing this interface is notified by the write operations of {@link HorseDao},
+ * after the change is committed. Changes, that bypass the DAO (like SQL scripts), are signalled
+ * with {@link #allHorsesChanged()}.
+ * </p>
+ */
+public interface HorseChangeListener {
+
+  /**
+   * Called after the horse with the given ID was changed or deleted.
+   * Newly created horses are not signalled, as no derived data can refer to them yet.
+   *
+   * @param id the ID of the changed or deleted horse
+   */
+  void horseChanged(long id);
+
+  /**
+   * Called after any of the horses may have changed.
+   */
+  void allHorsesChanged();
+}
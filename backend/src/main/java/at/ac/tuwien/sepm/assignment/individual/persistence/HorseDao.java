@@ -1,11 +1,16 @@
 package at.ac.tuwien.sepm.assignment.individual.persistence;
 
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseCreateDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseDescendantDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseDetailDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseListDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseSearchDto;
 import at.ac.tuwien.sepm.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepm.assignment.individual.entity.HorseValidationContext;
 import at.ac.tuwien.sepm.assignment.individual.exception.NotFoundException;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for horses.
@@ -28,6 +33,16 @@ public interface HorseDao {
    */
   Horse create(HorseCreateDto horse);
 
+  /**
+   * Create new horses in the persistent data store with one batch statement.
+   * If a transaction is active, the horses are only added to the {@link PedigreeIndex}
+   * and the {@link HorseTextIndex} once it is committed.
+   *
+   * @param horses the data of the horses to create
+   * @return the created horses, in the same order as {@code horses}
+   */
+  List<Horse> createAll(List<HorseCreateDto> horses);
+
 
   /**
    * Update the horse with the ID given in {@code horse}
@@ -49,6 +64,17 @@ public interface HorseDao {
    */
   Horse getById(long id) throws NotFoundException;
 
+  /**
+   * Get a horse by its ID from the persistent data store,
+   * together with its owner and the ID and name of its parents.
+   * The horse, its owner and its parents are fetched in a single query.
+   *
+   * @param id the ID of the horse to get
+   * @return the horse with the details of its owner and parents
+   * @throws NotFoundException if the Horse with the given ID does not exist in the persistent data store
+   */
+  HorseDetailDto getDetailById(long id) throws NotFoundException;
+
   /**
    * Get the parent by its ID from the persistent data store.
    *
@@ -74,9 +100,12 @@ public interface HorseDao {
    * before {@code horseSearchDto.bornBefore}, if its sex is {@code horseSearchDto.sex}, if its
    * owner name contains {@code horseSearchDto.ownerName} as a substring. If multiple criteria
    * are given, then the results must satisfy every criteria.
+   * If {@code horseSearchDto.nameMatch} is {@code PREFIX}, the names have to start with the given names instead.
    *
    * The returned stream of horses never contains more than {@code horseSearchDto.maxAmount} elements,
    *  even if there would be more matches in the persistent data store.
+   * The horses are sorted by name and ID. If {@code horseSearchDto.cursor} is given,
+   *  only horses sorted after the cursor are returned.
    * </p>
    *
    * @param horseSearchDto object containing the search parameters to match
@@ -84,6 +113,34 @@ public interface HorseDao {
    */
   List<Horse> searchHorses(HorseSearchDto horseSearchDto);
 
+  /**
+   * Search for horses matching the criteria in {@code horseSearchDto}, like {@link #searchHorses(HorseSearchDto)}.
+   * The owner of every horse is read from the same result set as the horse itself.
+   *
+   * @param horseSearchDto object containing the search parameters to match
+   * @return a list of horses, including their owners, matching the criteria in {@code horseSearchDto}
+   */
+  List<HorseListDto> searchHorsesWithOwner(HorseSearchDto horseSearchDto);
+
+  /**
+   * Search for horses matching the criteria in {@code horseSearchDto}, like {@link #searchHorsesWithOwner(HorseSearchDto)}.
+   * Instead of collecting the horses in a list, every horse is handed to {@code consumer} as soon as its row is read,
+   * so the memory needed does not grow with the number of matches.
+   *
+   * @param horseSearchDto object containing the search parameters to match
+   * @param consumer receives every horse, including its owner, matching the criteria in {@code horseSearchDto}
+   */
+  void streamHorsesWithOwner(HorseSearchDto horseSearchDto, Consumer<HorseListDto> consumer);
+
+  /**
+   * Get the horses with the given IDs, including their owners.
+   * IDs of horses, that do not exist, are ignored.
+   *
+   * @param ids the IDs of the horses to get
+   * @return the horses with the given IDs, in no particular order
+   */
+  List<HorseListDto> getListByIds(Collection<Long> ids);
+
   /**
    * Get all horses that are in the family tree of the horse
    * whose id is given in {@code id}. How many generations
@@ -96,6 +153,32 @@ public interface HorseDao {
    */
   List<Horse> getFamilyTree(long id, int generation) throws NotFoundException;
 
+  /**
+   * Get the descendants of the horse whose id is given in {@code id} with one query,
+   * and hand every one of them to {@code consumer} as soon as its row is read.
+   * How many generations are included is specified in {@code generations}, the children being the first one.
+   * A descendant, that is reached on more than one path, is handed over only once, with its closest generation.
+   * The descendants are ordered by generation and ID.
+   *
+   * @param id the id of the ancestor
+   * @param generations the number of generations to fetch
+   * @param maxAmount the maximum number of descendants to fetch, or {@code null} to fetch all of them
+   * @param consumer receives every descendant
+   */
+  void streamDescendants(long id, int generations, Integer maxAmount, Consumer<HorseDescendantDto> consumer);
+
+  /**
+   * Read everything needed to check the creation or update of a horse with one query.
+   * Each of the given IDs can be {@code null}, in which case the corresponding part of the context is empty.
+   *
+   * @param horseId the ID of the horse to update, {@code null} for a horse to create
+   * @param ownerId the ID of the owner referenced by the horse
+   * @param motherId the ID of the mother referenced by the horse
+   * @param fatherId the ID of the father referenced by the horse
+   * @return the context, containing those of the referenced horses and owner, that exist
+   */
+  HorseValidationContext getValidationContext(Long horseId, Long ownerId, Long motherId, Long fatherId);
+
   /**
    * Get all horses that are children of the horse
    * whose id is given in {@code id}.
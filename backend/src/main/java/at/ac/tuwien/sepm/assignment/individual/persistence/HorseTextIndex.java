@@ -0,0 +1,199 @@
+package at.ac.tuwien.sepm.assignment.individual.persistence;
+
+import at.ac.tuwien.sepm.assignment.individual.entity.Horse;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory inverted index over the name and the description of all horses in the persistent data store.
+ * <p>
+ * Both texts are split into lower case tokens of letters and digits. For every token, the index holds
+ * the weight of the token in every horse containing it; a token in the name weighs more than one in the description.
+ * Tokens are kept sorted, so that a search token also matches all tokens it is a prefix of.
+ * The work of a search depends on the number of matching tokens and horses, not on the number of horses stored.
+ * </p>
+ * <p>
+ * Like the {@link PedigreeIndex}, the index is loaded on startup and kept in sync by the write operations of {@link HorseDao}.
+ * Changes, that bypass the DAO (like SQL scripts), have to be followed by a {@link #rebuild(Collection)}.
+ * </p>
+ */
+@Component
+public class HorseTextIndex {
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final float NAME_WEIGHT = 2f;
+  private static final float DESCRIPTION_WEIGHT = 1f;
+  private static final float PREFIX_MATCH_FACTOR = 0.5f;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // token -> horse ID -> weight of the token in the horse
+  private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+  // horse ID -> tokens of the horse, to remove the postings of a horse, when it changes
+  private final Map<Long, Collection<String>> tokensByHorse = new HashMap<>();
+
+  /**
+   * A horse matching a text search.
+   *
+   * @param id the ID of the horse
+   * @param score how well the horse matches the search, higher is better
+   */
+  public record Match(long id, float score) {
+  }
+
+  /**
+   * Replace the content of the index with the given horses.
+   *
+   * @param horses all horses stored in the persistent data store
+   */
+  public void rebuild(Collection<Horse> horses) {
+    LOG.trace("rebuild({} horses)", horses.size());
+    lock.writeLock().lock();
+    try {
+      postings.clear();
+      tokensByHorse.clear();
+      for (Horse horse : horses) {
+        insert(horse);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Add the given horse to the index, or replace the horse with the same ID.
+   *
+   * @param horse the created or updated horse
+   */
+  public void put(Horse horse) {
+    LOG.trace("put({})", horse);
+    lock.writeLock().lock();
+    try {
+      delete(horse.getId());
+      insert(horse);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Remove the horse with the given ID from the index.
+   *
+   * @param id the ID of the deleted horse
+   */
+  public void remove(long id) {
+    LOG.trace("remove({})", id);
+    lock.writeLock().lock();
+    try {
+      delete(id);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Search for the horses, whose name or description contains the tokens of {@code text}.
+   * A token of the text matches equal tokens, and with less weight, tokens it is a prefix of.
+   * The score of a horse is the sum of the weights of all matches, where rare tokens weigh more than common ones.
+   *
+   * @param text the text to search for
+   * @param limit the maximum number of matches to return
+   * @return the best matching horses, the best match first
+   */
+  public List<Match> search(String text, int limit) {
+    LOG.trace("search(text:{}, limit:{})", text, limit);
+    Set<String> searchTokens = new LinkedHashSet<>(tokenize(text));
+    Map<Long, Float> scores = new HashMap<>();
+    lock.readLock().lock();
+    try {
+      int horseCount = Math.max(1, tokensByHorse.size());
+      for (String searchToken : searchTokens) {
+        for (var entry : postings.subMap(searchToken, true, searchToken + Character.MAX_VALUE, false).entrySet()) {
+          float idf = (float) Math.log(1.0 + (double) horseCount / entry.getValue().size());
+          float factor = entry.getKey().length() == searchToken.length() ? 1f : PREFIX_MATCH_FACTOR;
+          for (var posting : entry.getValue().entrySet()) {
+            scores.merge(posting.getKey(), factor * idf * posting.getValue(), Float::sum);
+          }
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    // keep the best matches in a heap, whose head is the worst of them
+    Comparator<Match> byRank = Comparator.comparingDouble(Match::score)
+        .thenComparing(Comparator.comparingLong(Match::id).reversed());
+    PriorityQueue<Match> best = new PriorityQueue<>(byRank);
+    for (var score : scores.entrySet()) {
+      best.add(new Match(score.getKey(), score.getValue()));
+      if (best.size() > limit) {
+        best.poll();
+      }
+    }
+    List<Match> matches = new ArrayList<>(best);
+    matches.sort(byRank.reversed());
+    return matches;
+  }
+
+  private void insert(Horse horse) {
+    Map<String, Float> weights = new HashMap<>();
+    for (String token : tokenize(horse.getName())) {
+      weights.merge(token, NAME_WEIGHT, Float::sum);
+    }
+    for (String token : tokenize(horse.getDescription())) {
+      weights.merge(token, DESCRIPTION_WEIGHT, Float::sum);
+    }
+    for (var weight : weights.entrySet()) {
+      postings.computeIfAbsent(weight.getKey(), token -> new HashMap<>()).put(horse.getId(), weight.getValue());
+    }
+    tokensByHorse.put(horse.getId(), List.copyOf(weights.keySet()));
+  }
+
+  private void delete(long id) {
+    Collection<String> tokens = tokensByHorse.remove(id);
+    if (tokens == null) {
+      return;
+    }
+    for (String token : tokens) {
+      Map<Long, Float> horses = postings.get(token);
+      horses.remove(id);
+      if (horses.isEmpty()) {
+        postings.remove(token);
+      }
+    }
+  }
+
+  static List<String> tokenize(String text) {
+    List<String> tokens = new ArrayList<>();
+    if (text == null) {
+      return tokens;
+    }
+    int start = -1;
+    for (int i = 0; i <= text.length(); i++) {
+      boolean partOfToken = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+      if (partOfToken && start < 0) {
+        start = i;
+      } else if (!partOfToken && start >= 0) {
+        tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+        start = -1;
+      }
+    }
+    return tokens;
+  }
+}
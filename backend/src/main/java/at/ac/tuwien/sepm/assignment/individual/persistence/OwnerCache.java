@@ -0,0 +1,140 @@
+package at.ac.tuwien.sepm.assignment.individual.persistence;
+
+import at.ac.tuwien.sepm.assignment.individual.entity.Owner;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.lang.invoke.MethodHandles;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size-bounded cache of owners by their ID, that evicts the least recently used owner when it is full.
+ * <p>
+ * Owners are read for nearly every horse, but rarely change, so most lookups of an owner can be answered
+ * without accessing the persistent data store. The cache is filled on reads and kept consistent by the write
+ * operations of {@link OwnerDao}. Changes, that bypass the DAO (like SQL scripts), have to be followed by a {@link #clear()}.
+ * The cached owners are shared with the callers and must not be modified.
+ * </p>
+ * <p>
+ * The counters of the cache are published as the Micrometer cache metrics {@code cache.gets},
+ * {@code cache.evictions} and {@code cache.size} with the tag {@code cache=owners},
+ * and can be read from {@code /actuator/metrics}.
+ * </p>
+ */
+@Component
+public class OwnerCache implements MeterBinder {
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final String CACHE_NAME = "owners";
+
+  private final int maxSize;
+  private final Map<Long, Owner> owners;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * Counters of the cache since its creation.
+   *
+   * @param hits the number of lookups answered by the cache
+   * @param misses the number of lookups, that had to go to the persistent data store
+   * @param evictions the number of owners removed, to make room for others
+   * @param size the number of owners currently cached
+   */
+  public record Stats(long hits, long misses, long evictions, int size) {
+  }
+
+  public OwnerCache(@Value("${owner.cache.max-size:10000}") int maxSize) {
+    this.maxSize = maxSize;
+    // access order, so that the eldest entry is the least recently used one
+    this.owners = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, Owner> eldest) {
+        if (size() > OwnerCache.this.maxSize) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Get the cached owner with the given ID.
+   *
+   * @param id the ID of the owner
+   * @return the owner, or {@code null} if it is not cached
+   */
+  public synchronized Owner get(long id) {
+    Owner owner = owners.get(id);
+    if (owner == null) {
+      misses++;
+    } else {
+      hits++;
+    }
+    return owner;
+  }
+
+  /**
+   * Add the given owner to the cache, or replace the cached owner with the same ID.
+   *
+   * @param owner the owner, as stored in the persistent data store
+   */
+  public synchronized void put(Owner owner) {
+    owners.put(owner.getId(), owner);
+  }
+
+  /**
+   * Remove the owner with the given ID from the cache, so that it is read from the persistent data store again.
+   *
+   * @param id the ID of the changed or deleted owner
+   */
+  public synchronized void invalidate(long id) {
+    LOG.trace("invalidate({})", id);
+    owners.remove(id);
+  }
+
+  /**
+   * Remove all owners from the cache.
+   */
+  public synchronized void clear() {
+    LOG.trace("clear()");
+    owners.clear();
+  }
+
+  /**
+   * Get the counters of the cache.
+   *
+   * @return the hits, misses and evictions since the creation of the cache, and its current size
+   */
+  public synchronized Stats stats() {
+    return new Stats(hits, misses, evictions, owners.size());
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("cache.gets", this, cache -> cache.stats().hits())
+        .tag("cache", CACHE_NAME)
+        .tag("result", "hit")
+        .description("The number of times cache lookup methods have returned a cached value.")
+        .register(registry);
+    FunctionCounter.builder("cache.gets", this, cache -> cache.stats().misses())
+        .tag("cache", CACHE_NAME)
+        .tag("result", "miss")
+        .description("The number of times cache lookup methods have not returned a value.")
+        .register(registry);
+    FunctionCounter.builder("cache.evictions", this, cache -> cache.stats().evictions())
+        .tag("cache", CACHE_NAME)
+        .description("The number of times the cache was evicted.")
+        .register(registry);
+    Gauge.builder("cache.size", this, cache -> cache.stats().size())
+        .tag("cache", CACHE_NAME)
+        .description("The number of entries in this cache.")
+        .register(registry);
+  }
+}
@@ -3,14 +3,23 @@ package at.ac.tuwien.sepm.assignment.individual.persistence;
 import at.ac.tuwien.sepm.assignment.individual.dto.OwnerCreateDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.OwnerSearchDto;
 import at.ac.tuwien.sepm.assignment.individual.entity.Owner;
+import at.ac.tuwien.sepm.assignment.individual.exception.ConflictException;
 import at.ac.tuwien.sepm.assignment.individual.exception.NotFoundException;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Data Access Object for owners.
  * Implements CRUD functionality for managing owners in the persistent data store.
  */
 public interface OwnerDao {
+  /**
+   * Get all owners stored in the persistent data store.
+   *
+   * @return a list of all stored owners
+   */
+  List<Owner> getAll();
+
   /**
    * Fetch an owner from the persistent data store by its ID.
    *
@@ -32,7 +41,8 @@ public interface OwnerDao {
   /**
    * Search for owners matching the criteria in {@code searchParameters}.
    * <p>
-   * A owner is considered matched, if its name contains {@code searchParameters.name} as a substring.
+   * A owner is considered matched, if its name contains {@code searchParameters.name} as a substring,
+   *  or starts with it, if {@code searchParameters.nameMatch} is {@code PREFIX}. Owners matched by prefix are sorted by name.
    * The returned stream of owners never contains more than {@code searchParameters.maxAmount} elements,
    *  even if there would be more matches in the persistent data store.
    * </p>
@@ -44,17 +54,12 @@ public interface OwnerDao {
 
   /**
    * Create a new owner in the persistent data store.
+   * The email of the owner has to be unique, ignoring case. This is enforced by the data store,
+   * so that it also holds for owners created concurrently.
    *
    * @param newOwner the data to create the new owner from
    * @return the newly created owner
+   * @throws ConflictException if an owner with the same email already exists
    */
-  Owner create(OwnerCreateDto newOwner);
-
-  /**
-   * Get the owner with the specified email
-   *
-   * @param email the email of the owner
-   * @return the owner with the specified email
-   */
-  Owner getOwnerByEmail(String email);
+  Owner create(OwnerCreateDto newOwner) throws ConflictException;
 }
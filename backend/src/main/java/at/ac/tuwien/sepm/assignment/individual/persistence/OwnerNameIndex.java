@@ -0,0 +1,219 @@
+package at.ac.tuwien.sepm.assignment.individual.persistence;
+
+import at.ac.tuwien.sepm.assignment.individual.entity.Owner;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory trigram index over the full names ({@code first_name || ' ' || last_name}) of all owners in the persistent data store.
+ * <p>
+ * For every sequence of three characters occurring in an upper-cased full name, the index holds the sorted list of owners containing it.
+ * A search for a substring intersects the lists of its trigrams, starting with the shortest one, and confirms every candidate
+ * against the full name. So the work of a search depends on the number of candidates, not on the number of owners stored.
+ * Substrings shorter than a trigram can not be looked up and are searched in the names held by the index.
+ * </p>
+ * <p>
+ * Like the {@link PedigreeIndex}, the index is loaded on startup and kept in sync by the write operations of {@link OwnerDao}.
+ * Changes, that bypass the DAO (like SQL scripts), have to be followed by a {@link #rebuild(Collection)}.
+ * </p>
+ */
+@Component
+public class OwnerNameIndex {
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int GRAM_LENGTH = 3;
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // the owners occupy the slots 0 to size - 1, in the order they were added
+  private long[] ids = new long[INITIAL_CAPACITY];
+  private String[] names = new String[INITIAL_CAPACITY];
+  private int size;
+  private final Map<Long, Integer> slotsById = new HashMap<>();
+  // trigram -> slots of the owners containing it, ascending
+  private final Map<Long, Postings> postings = new HashMap<>();
+
+  /**
+   * Replace the content of the index with the given owners.
+   *
+   * @param owners all owners stored in the persistent data store
+   */
+  public void rebuild(Collection<Owner> owners) {
+    LOG.trace("rebuild({} owners)", owners.size());
+    List<Owner> sorted = new ArrayList<>(owners);
+    sorted.sort(Comparator.comparingLong(Owner::getId));
+    lock.writeLock().lock();
+    try {
+      int capacity = Math.max(INITIAL_CAPACITY, sorted.size());
+      ids = new long[capacity];
+      names = new String[capacity];
+      size = 0;
+      slotsById.clear();
+      postings.clear();
+      for (Owner owner : sorted) {
+        insert(owner);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Add the given owner to the index.
+   * Owners are never changed after their creation, so an owner, that is already in the index, is ignored.
+   *
+   * @param owner the created owner
+   */
+  public void put(Owner owner) {
+    LOG.trace("put({})", owner);
+    lock.writeLock().lock();
+    try {
+      insert(owner);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Search for the owners, whose full name contains {@code name} as a substring, ignoring case.
+   * If {@code name} is {@code null} or empty, every owner matches.
+   *
+   * @param name the substring to search for
+   * @param limit the maximum number of IDs to return, or {@code null} to return all matches
+   * @return the IDs of the matching owners, in the order they were added to the index
+   */
+  public List<Long> search(String name, Integer limit) {
+    LOG.trace("search(name:{}, limit:{})", name, limit);
+    String substring = name == null ? "" : name.toUpperCase(Locale.ROOT);
+    int max = limit == null ? Integer.MAX_VALUE : limit;
+    List<Long> matches = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      if (substring.length() < GRAM_LENGTH) {
+        for (int slot = 0; slot < size && matches.size() < max; slot++) {
+          if (names[slot].contains(substring)) {
+            matches.add(ids[slot]);
+          }
+        }
+        return matches;
+      }
+
+      List<Postings> lists = new ArrayList<>();
+      for (long gram : grams(substring)) {
+        Postings list = postings.get(gram);
+        if (list == null) {
+          return matches;
+        }
+        lists.add(list);
+      }
+      lists.sort(Comparator.comparingInt(list -> list.size));
+
+      // walk the shortest list, and advance a cursor in every other list to the current candidate
+      Postings shortest = lists.get(0);
+      int[] cursors = new int[lists.size()];
+      candidates:
+      for (int i = 0; i < shortest.size && matches.size() < max; i++) {
+        int slot = shortest.slots[i];
+        for (int l = 1; l < lists.size(); l++) {
+          Postings list = lists.get(l);
+          cursors[l] = list.seek(slot, cursors[l]);
+          if (cursors[l] == list.size) {
+            break candidates;
+          }
+          if (list.slots[cursors[l]] != slot) {
+            continue candidates;
+          }
+        }
+        // all trigrams occur in the name, but not necessarily in a row
+        if (names[slot].contains(substring)) {
+          matches.add(ids[slot]);
+        }
+      }
+      return matches;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void insert(Owner owner) {
+    if (slotsById.containsKey(owner.getId())) {
+      return;
+    }
+    if (size == ids.length) {
+      int capacity = ids.length + (ids.length >> 1);
+      ids = Arrays.copyOf(ids, capacity);
+      names = Arrays.copyOf(names, capacity);
+    }
+    int slot = size++;
+    String name = fullName(owner);
+    ids[slot] = owner.getId();
+    names[slot] = name;
+    slotsById.put(owner.getId(), slot);
+    for (long gram : grams(name)) {
+      postings.computeIfAbsent(gram, g -> new Postings()).add(slot);
+    }
+  }
+
+  private static String fullName(Owner owner) {
+    return (owner.getFirstName() + " " + owner.getLastName()).toUpperCase(Locale.ROOT);
+  }
+
+  /**
+   * Get the distinct trigrams of {@code text}, each packed into a long.
+   */
+  private static Set<Long> grams(String text) {
+    Set<Long> grams = new LinkedHashSet<>();
+    for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+      grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+    }
+    return grams;
+  }
+
+  /**
+   * Growable, ascending list of slots.
+   */
+  private static final class Postings {
+    private int[] slots = new int[4];
+    private int size;
+
+    void add(int slot) {
+      if (size == slots.length) {
+        slots = Arrays.copyOf(slots, size << 1);
+      }
+      slots[size++] = slot;
+    }
+
+    /**
+     * Get the position of the first slot, that is not less than {@code slot}, searching from {@code from} on.
+     * Probes ahead in growing steps first, so skipping far ahead in a long list is cheap.
+     */
+    int seek(int slot, int from) {
+      int step = 1;
+      int low = from;
+      int high = from;
+      while (high < size && slots[high] < slot) {
+        low = high + 1;
+        high += step;
+        step <<= 1;
+      }
+      high = Math.min(high, size);
+      int position = Arrays.binarySearch(slots, low, high, slot);
+      return position >= 0 ? position : -position - 1;
+    }
+  }
+}
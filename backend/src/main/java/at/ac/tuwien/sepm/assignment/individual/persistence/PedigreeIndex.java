@@ -0,0 +1,376 @@
+package at.ac.tuwien.sepm.assignment.individual.persistence;
+
+import at.ac.tuwien.sepm.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepm.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepm.assignment.individual.type.Sex;
+import java.lang.invoke.MethodHandles;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory index of the pedigree of all horses in the persistent data store.
+ * <p>
+ * For every horse, the index holds the IDs of its parents and the data needed for a family tree
+ * (name, date of birth and sex) in primitive arrays. Horses are looked up by their ID through an
+ * open addressing hash table, so resolving the ancestry of a horse does not access the persistent data store.
+ * </p>
+ * <p>
+ * The index is loaded on startup and kept in sync by the write operations of {@link HorseDao}.
+ * Changes, that bypass the DAO (like SQL scripts), have to be followed by a {@link #rebuild(Collection)}.
+ * </p>
+ */
+@Component
+public class PedigreeIndex {
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final long NO_PARENT = Long.MIN_VALUE;
+  private static final int EMPTY = -1;
+  private static final int INITIAL_CAPACITY = 64;
+  private static final Sex[] SEXES = Sex.values();
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // hash table from horse ID to the slot of the horse in the node arrays, using linear probing
+  private long[] tableIds;
+  private int[] tableSlots;
+
+  // node arrays, the horses occupy the slots 0 to size - 1
+  private long[] ids;
+  private long[] motherIds;
+  private long[] fatherIds;
+  private long[] datesOfBirth;
+  private byte[] sexes;
+  private String[] names;
+  private int size;
+
+  public PedigreeIndex() {
+    allocate(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Replace the content of the index with the given horses.
+   *
+   * @param horses all horses stored in the persistent data store
+   */
+  public void rebuild(Collection<Horse> horses) {
+    LOG.trace("rebuild({} horses)", horses.size());
+    lock.writeLock().lock();
+    try {
+      allocate(Math.max(INITIAL_CAPACITY, horses.size()));
+      for (Horse horse : horses) {
+        insert(horse);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Add the given horse to the index, or replace the horse with the same ID.
+   *
+   * @param horse the created or updated horse
+   */
+  public void put(Horse horse) {
+    LOG.trace("put({})", horse);
+    lock.writeLock().lock();
+    try {
+      insert(horse);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Remove the horse with the given ID from the index.
+   * References of other horses to the removed horse are treated as if they were not set.
+   *
+   * @param id the ID of the deleted horse
+   */
+  public void remove(long id) {
+    LOG.trace("remove({})", id);
+    lock.writeLock().lock();
+    try {
+      int bucket = bucketOf(id);
+      if (bucket == EMPTY) {
+        return;
+      }
+      int slot = tableSlots[bucket];
+      deleteBucket(bucket);
+
+      // keep the node arrays dense, by moving the last horse into the freed slot
+      int last = --size;
+      if (slot != last) {
+        ids[slot] = ids[last];
+        motherIds[slot] = motherIds[last];
+        fatherIds[slot] = fatherIds[last];
+        datesOfBirth[slot] = datesOfBirth[last];
+        sexes[slot] = sexes[last];
+        names[slot] = names[last];
+        tableSlots[bucketOf(ids[slot])] = slot;
+      }
+      names[last] = null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Get the horse with the given ID.
+   * The returned horse only contains the data held by the index: ID, name, date of birth, sex and parents.
+   *
+   * @param id the ID of the horse to get
+   * @return the horse
+   * @throws NotFoundException if the horse with the given ID is not in the index
+   */
+  public Horse getById(long id) throws NotFoundException {
+    LOG.trace("getById({})", id);
+    lock.readLock().lock();
+    try {
+      int slot = find(id);
+      if (slot == EMPTY) {
+        throw new NotFoundException("No horse with ID %d found".formatted(id));
+      }
+      return toHorse(slot);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Get all horses that are in the family tree of the horse with the given ID.
+   * How many generations are included is specified in {@code generations}, the horse itself being the first one.
+   * Every horse is contained only once, even if it is reached on more than one path.
+   *
+   * @param id the ID of the root horse
+   * @param generations the number of generations to include
+   * @return the horses of the family tree, containing ID, name, date of birth, sex and parents
+   * @throws NotFoundException if the horse with the given ID is not in the index
+   */
+  public List<Horse> getFamilyTree(long id, int generations) throws NotFoundException {
+    LOG.trace("getFamilyTree(id:{}, generations:{})", id, generations);
+    lock.readLock().lock();
+    try {
+      int root = find(id);
+      if (root == EMPTY) {
+        throw new NotFoundException("No horse with ID %d found".formatted(id));
+      }
+
+      List<Horse> family = new ArrayList<>();
+      Set<Integer> visited = new HashSet<>();
+      visited.add(root);
+      List<Integer> generation = List.of(root);
+      for (int depth = 1; !generation.isEmpty(); depth++) {
+        List<Integer> parents = new ArrayList<>();
+        for (int slot : generation) {
+          family.add(toHorse(slot));
+          if (depth < generations) {
+            addUnvisited(parents, visited, motherIds[slot]);
+            addUnvisited(parents, visited, fatherIds[slot]);
+          }
+        }
+        generation = parents;
+      }
+      return family;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Check whether the horse with the ID {@code ancestorId} is an ancestor of the horse with the ID {@code id},
+   * or the horse itself.
+   * Walks the ancestors of the horse, visiting each of them once, and stops as soon as the ancestor is reached.
+   * The walk does not rely on the dates of birth, so it also terminates on a pedigree that already contains a cycle.
+   *
+   * @param ancestorId the ID of the possible ancestor
+   * @param id the ID of the horse, whose ancestors are searched
+   * @return true if {@code ancestorId} is {@code id} or the ID of one of its ancestors, otherwise false
+   */
+  public boolean isAncestor(long ancestorId, long id) {
+    LOG.trace("isAncestor(ancestorId:{}, id:{})", ancestorId, id);
+    if (ancestorId == id) {
+      return true;
+    }
+    lock.readLock().lock();
+    try {
+      int start = find(id);
+      if (start == EMPTY || find(ancestorId) == EMPTY) {
+        return false;
+      }
+      BitSet visited = new BitSet();
+      visited.set(start);
+      int[] stack = new int[16];
+      stack[0] = start;
+      int top = 1;
+      while (top > 0) {
+        int slot = stack[--top];
+        for (int parentIndex = 0; parentIndex < 2; parentIndex++) {
+          long parentId = parentIndex == 0 ? motherIds[slot] : fatherIds[slot];
+          if (parentId == ancestorId) {
+            return true;
+          }
+          int parent = parentId == NO_PARENT ? EMPTY : find(parentId);
+          if (parent != EMPTY && !visited.get(parent)) {
+            visited.set(parent);
+            if (top == stack.length) {
+              stack = Arrays.copyOf(stack, top << 1);
+            }
+            stack[top++] = parent;
+          }
+        }
+      }
+      return false;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void addUnvisited(List<Integer> slots, Set<Integer> visited, long parentId) {
+    if (parentId == NO_PARENT) {
+      return;
+    }
+    int slot = find(parentId);
+    if (slot != EMPTY && visited.add(slot)) {
+      slots.add(slot);
+    }
+  }
+
+  private Horse toHorse(int slot) {
+    return new Horse()
+        .setId(ids[slot])
+        .setName(names[slot])
+        .setDateOfBirth(LocalDate.ofEpochDay(datesOfBirth[slot]))
+        .setSex(SEXES[sexes[slot]])
+        .setMotherId(existingParent(motherIds[slot]))
+        .setFatherId(existingParent(fatherIds[slot]));
+  }
+
+  private Long existingParent(long parentId) {
+    return parentId == NO_PARENT || find(parentId) == EMPTY
+        ? null
+        : parentId;
+  }
+
+  private void insert(Horse horse) {
+    int slot = find(horse.getId());
+    if (slot == EMPTY) {
+      if (size == ids.length) {
+        growNodes();
+      }
+      if (2 * (size + 1) > tableSlots.length) {
+        growTable();
+      }
+      slot = size++;
+      int bucket = bucketFor(horse.getId());
+      tableIds[bucket] = horse.getId();
+      tableSlots[bucket] = slot;
+    }
+    ids[slot] = horse.getId();
+    motherIds[slot] = horse.getMotherId() == null ? NO_PARENT : horse.getMotherId();
+    fatherIds[slot] = horse.getFatherId() == null ? NO_PARENT : horse.getFatherId();
+    datesOfBirth[slot] = horse.getDateOfBirth().toEpochDay();
+    sexes[slot] = (byte) horse.getSex().ordinal();
+    names[slot] = horse.getName();
+  }
+
+  private int find(long id) {
+    int bucket = bucketOf(id);
+    return bucket == EMPTY ? EMPTY : tableSlots[bucket];
+  }
+
+  private int bucketOf(long id) {
+    int mask = tableSlots.length - 1;
+    for (int bucket = hash(id) & mask; tableSlots[bucket] != EMPTY; bucket = (bucket + 1) & mask) {
+      if (tableIds[bucket] == id) {
+        return bucket;
+      }
+    }
+    return EMPTY;
+  }
+
+  private int bucketFor(long id) {
+    int mask = tableSlots.length - 1;
+    int bucket = hash(id) & mask;
+    while (tableSlots[bucket] != EMPTY) {
+      bucket = (bucket + 1) & mask;
+    }
+    return bucket;
+  }
+
+  /**
+   * Free the given bucket, and shift back the following entries of the probe sequence,
+   * so that no lookup stops early at the freed bucket.
+   */
+  private void deleteBucket(int bucket) {
+    int mask = tableSlots.length - 1;
+    int free = bucket;
+    for (int next = (free + 1) & mask; tableSlots[next] != EMPTY; next = (next + 1) & mask) {
+      int home = hash(tableIds[next]) & mask;
+      boolean staysInPlace = free <= next
+          ? free < home && home <= next
+          : free < home || home <= next;
+      if (!staysInPlace) {
+        tableIds[free] = tableIds[next];
+        tableSlots[free] = tableSlots[next];
+        free = next;
+      }
+    }
+    tableSlots[free] = EMPTY;
+  }
+
+  private void growNodes() {
+    int capacity = ids.length + (ids.length >> 1);
+    ids = Arrays.copyOf(ids, capacity);
+    motherIds = Arrays.copyOf(motherIds, capacity);
+    fatherIds = Arrays.copyOf(fatherIds, capacity);
+    datesOfBirth = Arrays.copyOf(datesOfBirth, capacity);
+    sexes = Arrays.copyOf(sexes, capacity);
+    names = Arrays.copyOf(names, capacity);
+  }
+
+  private void growTable() {
+    int capacity = tableSlots.length << 1;
+    tableIds = new long[capacity];
+    tableSlots = new int[capacity];
+    Arrays.fill(tableSlots, EMPTY);
+    for (int slot = 0; slot < size; slot++) {
+      int bucket = bucketFor(ids[slot]);
+      tableIds[bucket] = ids[slot];
+      tableSlots[bucket] = slot;
+    }
+  }
+
+  /**
+   * Allocate empty node arrays for {@code capacity} horses,
+   * and a hash table, that is at most half full with that many horses.
+   */
+  private void allocate(int capacity) {
+    int tableCapacity = Integer.highestOneBit(capacity - 1) << 2;
+    tableIds = new long[tableCapacity];
+    tableSlots = new int[tableCapacity];
+    Arrays.fill(tableSlots, EMPTY);
+    ids = new long[capacity];
+    motherIds = new long[capacity];
+    fatherIds = new long[capacity];
+    datesOfBirth = new long[capacity];
+    sexes = new byte[capacity];
+    names = new String[capacity];
+    size = 0;
+  }
+
+  private static int hash(long id) {
+    long h = id * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
@@ -0,0 +1,266 @@
+package at.ac.tuwien.sepm.assignment.individual.persistence;
+
+import at.ac.tuwien.sepm.assignment.individual.type.Sex;
+import java.lang.invoke.MethodHandles;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates owners and horses with a pedigree over several generations, to fill the database for load tests and benchmarks.
+ * <p>
+ * The horses are split evenly into generations. Every horse of a later generation has a mare of the previous
+ * generation as mother and a stallion of the previous generation as father, and is born after both of them.
+ * Fathers are picked with a strong preference for few popular stallions, like in real breeding,
+ * so that the pedigrees of many horses share ancestors.
+ * The data only depends on the seed and the current year, not on the number of threads, that insert it.
+ * </p>
+ * <p>
+ * The rows are inserted in batches, each in its own transaction, on several threads.
+ * A generation is inserted only after its parents, so that the foreign keys hold at any time.
+ * Owners and horses get negative IDs starting at {@code -(ID_OFFSET + 1)}, so they do not collide with the sample data,
+ * nor with data entered by the user, and are deleted together with the sample data.
+ * </p>
+ */
+final class SyntheticDataGenerator {
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  static final long ID_OFFSET = 1000;
+  private static final int YEARS_PER_GENERATION = 4;
+  private static final int DAYS_OF_BIRTH = 3 * 365;
+  private static final int OWNERLESS_PERCENT = 20;
+
+  private static final String[] FIRST_NAMES = {
+      "Anna", "Ben", "Clara", "David", "Emma", "Felix", "Greta", "Hannah", "Jakob", "Lena",
+      "Lukas", "Maria", "Noah", "Paul", "Sophie", "Theo", "Valentina", "Wendy"
+  };
+  private static final String[] LAST_NAMES = {
+      "Bauer", "Berger", "Fischer", "Gruber", "Hofer", "Huber", "Koller", "Lehner", "Mayer", "Moser",
+      "Pichler", "Schmid", "Steiner", "Wagner", "Weber", "Wimmer", "Winkler", "Wolf"
+  };
+  private static final String[] HORSE_NAMES = {
+      "Amber", "Blaze", "Comet", "Dancer", "Ember", "Flash", "Goldie", "Hero", "Indigo", "Jewel",
+      "Luna", "Midnight", "Nova", "Pepper", "Shadow", "Spirit", "Storm", "Thunder"
+  };
+  private static final String[] DESCRIPTIONS = {
+      "Calm and reliable", "Strong jumper", "Fast on short distances", "Good with children",
+      "Needs an experienced rider", "Retired from racing", "Gentle trail horse", null
+  };
+
+  private static final String SQL_INSERT_OWNER =
+      "INSERT INTO owner (id, first_name, last_name, email) VALUES (?, ?, ?, ?)";
+  private static final String SQL_INSERT_HORSE =
+      "INSERT INTO horse (id, name, description, date_of_birth, sex, owner_id, mother_id, father_id)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final DataSource dataSource;
+  private final int threads;
+  private final int batchSize;
+
+  SyntheticDataGenerator(DataSource dataSource, int threads, int batchSize) {
+    if (threads < 1 || batchSize < 1) {
+      throw new IllegalArgumentException("Number of threads and batch size must be positive");
+    }
+    this.dataSource = dataSource;
+    this.threads = threads;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Get the ID of the generated owner or horse with the given index.
+   *
+   * @param index the index of the owner or horse, starting at 0
+   * @return the ID
+   */
+  static long id(long index) {
+    return -(ID_OFFSET + 1 + index);
+  }
+
+  /**
+   * Insert {@code ownerCount} owners and {@code horseCount} horses in {@code generations} generations.
+   *
+   * @param ownerCount the number of owners
+   * @param horseCount the number of horses, at least two per generation
+   * @param generations the number of generations, at least 1
+   * @param seed the seed of the random data
+   * @throws SQLException if inserting the data failed
+   */
+  void generate(int ownerCount, int horseCount, int generations, long seed) throws SQLException {
+    if (ownerCount < 0 || generations < 1 || horseCount < 2 * generations) {
+      throw new IllegalArgumentException("Invalid synthetic data sizes: " + ownerCount + " owners, "
+          + horseCount + " horses in " + generations + " generations");
+    }
+    long start = System.nanoTime();
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Batch> ownerBatches = new ArrayList<>();
+      for (int first = 0; first < ownerCount; first += batchSize) {
+        int from = first;
+        int to = Math.min(first + batchSize, ownerCount);
+        ownerBatches.add(() -> insertOwners(from, to, seed));
+      }
+      run(executor, ownerBatches);
+      LOGGER.info("Generated {} owners", ownerCount);
+
+      int generationSize = horseCount / generations;
+      // the last generation is born within the three years before the last year, so no horse is born in the future
+      int baseYear = Year.now().getValue() - YEARS_PER_GENERATION * generations;
+      for (int generation = 0; generation < generations; generation++) {
+        Generation current = new Generation(generation * generationSize,
+            generation == generations - 1 ? horseCount - generation * generationSize : generationSize,
+            LocalDate.of(baseYear + YEARS_PER_GENERATION * generation, 1, 1));
+        Generation parents = generation == 0 ? null : new Generation(
+            (generation - 1) * generationSize, generationSize, null);
+        List<Batch> horseBatches = new ArrayList<>();
+        for (int first = 0; first < current.size(); first += batchSize) {
+          int from = first;
+          int to = Math.min(first + batchSize, current.size());
+          horseBatches.add(() -> insertHorses(current, parents, from, to, ownerCount, seed));
+        }
+        run(executor, horseBatches);
+        LOGGER.info("Generated generation {} of {} with {} horses", generation + 1, generations, current.size());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    LOGGER.info("Generated {} owners and {} horses in {} ms", ownerCount, horseCount, (System.nanoTime() - start) / 1_000_000);
+  }
+
+  private void insertOwners(int from, int to, long seed) throws SQLException {
+    SplittableRandom random = new SplittableRandom(seed ^ ((long) from << 1));
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try (PreparedStatement stmt = connection.prepareStatement(SQL_INSERT_OWNER)) {
+        for (int index = from; index < to; index++) {
+          String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+          String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+          stmt.setLong(1, id(index));
+          stmt.setString(2, firstName);
+          stmt.setString(3, lastName);
+          // the index keeps the emails unique
+          stmt.setString(4, (firstName + "." + lastName + "." + index + "@example.com").toLowerCase(Locale.ROOT));
+          stmt.addBatch();
+        }
+        stmt.executeBatch();
+        connection.commit();
+      } catch (SQLException e) {
+        connection.rollback();
+        throw e;
+      } finally {
+        connection.setAutoCommit(true);
+      }
+    }
+  }
+
+  private void insertHorses(Generation generation, Generation parents, int from, int to, int ownerCount, long seed)
+      throws SQLException {
+    // one random per batch, seeded by its first horse, so the data does not depend on the order of the batches
+    SplittableRandom random = new SplittableRandom(seed ^ (((long) generation.first() + from) << 1 | 1));
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try (PreparedStatement stmt = connection.prepareStatement(SQL_INSERT_HORSE)) {
+        for (int offset = from; offset < to; offset++) {
+          long index = generation.first() + offset;
+          stmt.setLong(1, id(index));
+          stmt.setString(2, HORSE_NAMES[random.nextInt(HORSE_NAMES.length)] + " " + (index + 1));
+          stmt.setString(3, DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)]);
+          stmt.setDate(4, Date.valueOf(generation.firstBirthday().plusDays(random.nextInt(DAYS_OF_BIRTH))));
+          stmt.setString(5, Generation.sex(offset).name());
+          if (ownerCount == 0 || random.nextInt(100) < OWNERLESS_PERCENT) {
+            stmt.setNull(6, Types.BIGINT);
+          } else {
+            stmt.setLong(6, id(random.nextInt(ownerCount)));
+          }
+          if (parents == null) {
+            stmt.setNull(7, Types.BIGINT);
+            stmt.setNull(8, Types.BIGINT);
+          } else {
+            stmt.setLong(7, id(parents.first() + parents.mare(random.nextInt(parents.mareCount()))));
+            // squaring the random number favours the first stallions of a generation
+            double popularity = random.nextDouble();
+            int stallion = (int) (parents.stallionCount() * popularity * popularity);
+            stmt.setLong(8, id(parents.first() + parents.stallion(stallion)));
+          }
+          stmt.addBatch();
+        }
+        stmt.executeBatch();
+        connection.commit();
+      } catch (SQLException e) {
+        connection.rollback();
+        throw e;
+      } finally {
+        connection.setAutoCommit(true);
+      }
+    }
+  }
+
+  private static void run(ExecutorService executor, List<Batch> batches) throws SQLException {
+    List<Future<Void>> futures = new ArrayList<>(batches.size());
+    for (Batch batch : batches) {
+      futures.add(executor.submit(() -> {
+        batch.insert();
+        return null;
+      }));
+    }
+    try {
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof SQLException sqlException) {
+        throw sqlException;
+      }
+      throw new IllegalStateException("Generating data failed", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Generating data was interrupted", e);
+    }
+  }
+
+  @FunctionalInterface
+  private interface Batch {
+    void insert() throws SQLException;
+  }
+
+  /**
+   * The horses of one generation, that have the indexes {@code first} to {@code first + size - 1}.
+   * Horses at an even offset in their generation are mares, the others stallions.
+   */
+  private record Generation(int first, int size, LocalDate firstBirthday) {
+
+    static Sex sex(int offset) {
+      return offset % 2 == 0 ? Sex.FEMALE : Sex.MALE;
+    }
+
+    int mareCount() {
+      return (size + 1) / 2;
+    }
+
+    int stallionCount() {
+      return size / 2;
+    }
+
+    int mare(int mare) {
+      return 2 * mare;
+    }
+
+    int stallion(int stallion) {
+      return 2 * stallion + 1;
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package at.ac.tuwien.sepm.assignment.individual.persistence.impl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers the changes of the in-memory indexes and caches of the DAOs to the commit of the current transaction,
+ * so that rows, which are rolled back, never show up in them.
+ */
+final class AfterCommit {
+
+  private AfterCommit() {
+  }
+
+  /**
+   * Run {@code action} after the current transaction is committed, or right away if there is no transaction.
+   * If the transaction is rolled back, the action is not run at all.
+   *
+   * @param action the change of an index or cache
+   */
+  static void run(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+}
@@ -1,23 +1,42 @@
 package at.ac.tuwien.sepm.assignment.individual.persistence.impl;
 
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseCreateDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseDescendantDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseDetailDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseListDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseSearchDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.OwnerDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.ParentDto;
 import at.ac.tuwien.sepm.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepm.assignment.individual.entity.HorseValidationContext;
+import at.ac.tuwien.sepm.assignment.individual.entity.Owner;
 import at.ac.tuwien.sepm.assignment.individual.exception.FatalException;
 import at.ac.tuwien.sepm.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepm.assignment.individual.persistence.HorseChangeListener;
 import at.ac.tuwien.sepm.assignment.individual.persistence.HorseDao;
+import at.ac.tuwien.sepm.assignment.individual.persistence.HorseTextIndex;
+import at.ac.tuwien.sepm.assignment.individual.persistence.PedigreeIndex;
+import at.ac.tuwien.sepm.assignment.individual.persistence.impl.SearchQueryCompiler.SearchQuery;
 import at.ac.tuwien.sepm.assignment.individual.type.Sex;
+import jakarta.annotation.PostConstruct;
 import java.lang.invoke.MethodHandles;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.stereotype.Repository;
 
@@ -28,6 +47,14 @@ public class HorseJdbcDao implements HorseDao {
   private static final String TABLE_NAME = "horse";
   private static final String SQL_SELECT_ALL = "SELECT * FROM " + TABLE_NAME;
   private static final String SQL_SELECT_BY_ID = "SELECT * FROM " + TABLE_NAME + " WHERE id = ?";
+  private static final String SQL_SELECT_DETAIL_BY_ID = "SELECT horse.*"
+      + ", owner.first_name AS owner_first_name, owner.last_name AS owner_last_name, owner.email AS owner_email"
+      + ", mother.name AS mother_name, father.name AS father_name"
+      + " FROM " + TABLE_NAME
+      + " LEFT JOIN owner ON owner.id = horse.owner_id"
+      + " LEFT JOIN " + TABLE_NAME + " mother ON mother.id = horse.mother_id"
+      + " LEFT JOIN " + TABLE_NAME + " father ON father.id = horse.father_id"
+      + " WHERE horse.id = ?";
   private static final String SQL_UPDATE = "UPDATE " + TABLE_NAME
       + " SET name = ?"
       + "  , description = ?"
@@ -42,33 +69,108 @@ public class HorseJdbcDao implements HorseDao {
           + "(name, description, date_of_birth, sex, owner_id, mother_id, father_id) "
           + "VALUES (?,?,?,?,?,?,?)";
 
+  // the normalized columns are generated as well, so the ID has to be requested explicitly as the only key
+  private static final String[] KEY_COLUMNS = {"id"};
+
   private static final String SQL_DELETE = "DELETE FROM " + TABLE_NAME + " WHERE id = ?";
-  private static final String SQL_UPDATE_CHILDREN_WHEN_DELETING_MOTHER = "UPDATE " + TABLE_NAME
+  static final String SQL_UPDATE_CHILDREN_WHEN_DELETING_MOTHER = "UPDATE " + TABLE_NAME
           + " SET mother_id = null WHERE mother_id = ?";
 
-  private static final String SQL_UPDATE_CHILDREN_WHEN_DELETING_FATHER = "UPDATE " + TABLE_NAME
+  static final String SQL_UPDATE_CHILDREN_WHEN_DELETING_FATHER = "UPDATE " + TABLE_NAME
           + " SET father_id = null WHERE father_id = ?";
 
   private static final String SQL_SEARCH = "SELECT horse.* FROM " + TABLE_NAME
           + " LEFT JOIN owner ON horse.owner_id=owner.id";
 
-  private static final String SQL_FAMILY_TREE = "WITH RECURSIVE"
+  static final String SQL_SEARCH_WITH_OWNER = "SELECT horse.*"
+          + ", owner.first_name AS owner_first_name, owner.last_name AS owner_last_name, owner.email AS owner_email"
+          + " FROM " + TABLE_NAME
+          + " LEFT JOIN owner ON horse.owner_id=owner.id";
+
+  private static final SearchQueryCompiler SEARCH = new SearchQueryCompiler(SQL_SEARCH);
+  static final SearchQueryCompiler SEARCH_WITH_OWNER = new SearchQueryCompiler(SQL_SEARCH_WITH_OWNER);
+
+  // The generation bound is part of the recursive member, so the recursion stops at the requested depth
+  // instead of walking the whole ancestry first. Parents are joined with an IN on the primary key,
+  // which (unlike an OR over both parent columns) is resolved through the primary key index.
+  static final String SQL_FAMILY_TREE = "WITH RECURSIVE"
           + " tmp(id, name, date_of_birth, sex, mother_id, father_id, generation)"
           + " AS ("
           + " SELECT id, name, date_of_birth, sex, mother_id, father_id, 1 FROM horse WHERE id = ?"
           + " UNION"
           + " SELECT h.id, h.name, h.date_of_birth, h.sex, h.mother_id, h.father_id, tmp.generation + 1"
-          + " FROM horse h JOIN tmp ON tmp.mother_id = h.id OR tmp.father_id = h.id)"
-          + " SELECT id, name, date_of_birth, sex, mother_id, father_id, generation FROM tmp WHERE generation <= ?";
-
-  private static final String SQL_GET_CHILDREN = "SELECT * FROM " + TABLE_NAME
-          + " WHERE mother_id = ? OR father_id = ?";
+          + " FROM tmp JOIN horse h ON h.id IN (tmp.mother_id, tmp.father_id)"
+          + " WHERE tmp.generation < ?)"
+          + " SELECT DISTINCT id, name, date_of_birth, sex, mother_id, father_id FROM tmp";
+
+  // The children of a generation are looked up with one select per parent column, so that they are found
+  // through the parent indexes (a join on an OR over both columns scans the whole table).
+  // H2 does not remove duplicates across the recursion, so the recursive member is DISTINCT,
+  // which keeps a horse reached on several paths from multiplying its descendants within a generation.
+  static final String SQL_DESCENDANTS = "WITH RECURSIVE descendants(id, generation) AS ("
+          + " SELECT id, 0 FROM " + TABLE_NAME + " WHERE id = ?"
+          + " UNION ALL"
+          + " SELECT DISTINCT child.id, descendants.generation + 1"
+          + " FROM descendants JOIN " + TABLE_NAME + " child ON child.id IN ("
+          + " SELECT id FROM " + TABLE_NAME + " WHERE mother_id = descendants.id"
+          + " UNION ALL SELECT id FROM " + TABLE_NAME + " WHERE father_id = descendants.id)"
+          + " WHERE descendants.generation < ?)"
+          + " SELECT horse.id, horse.name, horse.date_of_birth, horse.sex, horse.mother_id, horse.father_id,"
+          + " MIN(descendants.generation) AS generation"
+          + " FROM descendants JOIN " + TABLE_NAME + " ON horse.id = descendants.id"
+          + " WHERE descendants.generation > 0"
+          + " GROUP BY horse.id"
+          + " ORDER BY generation, horse.id";
+
+  // one select per parent column, as an OR over both columns cannot be resolved through their indexes
+  static final String SQL_GET_CHILDREN = "SELECT * FROM " + TABLE_NAME + " WHERE mother_id = ?"
+          + " UNION SELECT * FROM " + TABLE_NAME + " WHERE father_id = ?";
+
+  // one row, that joins the horse, its owner and its parents, each of them if it exists
+  static final String SQL_VALIDATION_CONTEXT = "SELECT"
+          + " horse.id AS horse_id, horse.date_of_birth AS horse_date_of_birth, horse.sex AS horse_sex,"
+          + " (EXISTS (SELECT 1 FROM " + TABLE_NAME + " child WHERE child.mother_id = horse.id)"
+          + " OR EXISTS (SELECT 1 FROM " + TABLE_NAME + " child WHERE child.father_id = horse.id)) AS has_children,"
+          + " owner.id AS owner_id, owner.first_name AS owner_first_name, owner.last_name AS owner_last_name, owner.email AS owner_email,"
+          + " mother.id AS mother_id, mother.name AS mother_name, mother.date_of_birth AS mother_date_of_birth, mother.sex AS mother_sex,"
+          + " father.id AS father_id, father.name AS father_name, father.date_of_birth AS father_date_of_birth, father.sex AS father_sex"
+          + " FROM (VALUES (0)) AS context(dummy)"
+          + " LEFT JOIN " + TABLE_NAME + " horse ON horse.id = ?"
+          + " LEFT JOIN owner ON owner.id = ?"
+          + " LEFT JOIN " + TABLE_NAME + " mother ON mother.id = ?"
+          + " LEFT JOIN " + TABLE_NAME + " father ON father.id = ?";
+
+  private static final String SQL_LAZY_QUERY_EXECUTION = "SET LAZY_QUERY_EXECUTION ";
 
   private final JdbcTemplate jdbcTemplate;
+  private final PedigreeIndex pedigreeIndex;
+  private final HorseTextIndex textIndex;
+  private final List<HorseChangeListener> changeListeners;
+  private final int searchFetchSize;
 
   public HorseJdbcDao(
-      JdbcTemplate jdbcTemplate) {
+      JdbcTemplate jdbcTemplate,
+      PedigreeIndex pedigreeIndex,
+      HorseTextIndex textIndex,
+      List<HorseChangeListener> changeListeners,
+      @Value("${horse.search.fetch-size:500}") int searchFetchSize) {
     this.jdbcTemplate = jdbcTemplate;
+    this.pedigreeIndex = pedigreeIndex;
+    this.textIndex = textIndex;
+    this.changeListeners = changeListeners;
+    this.searchFetchSize = searchFetchSize;
+  }
+
+  /**
+   * Executed once when the component is instantiated. Loads all horses into the {@link PedigreeIndex}
+   * and the {@link HorseTextIndex}.
+   */
+  @PostConstruct
+  public void loadIndexes() {
+    LOG.trace("loadIndexes()");
+    List<Horse> horses = getAll();
+    pedigreeIndex.rebuild(horses);
+    textIndex.rebuild(horses);
   }
 
   @Override
@@ -95,6 +197,21 @@ public class HorseJdbcDao implements HorseDao {
     return horses.get(0);
   }
 
+  @Override
+  public HorseDetailDto getDetailById(long id) throws NotFoundException {
+    LOG.trace("getDetailById({})", id);
+    List<HorseDetailDto> horses = jdbcTemplate.query(SQL_SELECT_DETAIL_BY_ID, this::mapDetailRow, id);
+
+    if (horses.isEmpty()) {
+      throw new NotFoundException("No horse with ID %d found".formatted(id));
+    }
+    if (horses.size() > 1) {
+      throw new FatalException("Too many horses with ID %d found".formatted(id));
+    }
+
+    return horses.get(0);
+  }
+
   @Override
   public Horse getParentById(long id) throws NotFoundException {
     LOG.trace("getParentById({})", id);
@@ -117,14 +234,8 @@ public class HorseJdbcDao implements HorseDao {
 
     GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
     jdbcTemplate.update(con -> {
-      PreparedStatement stmt = con.prepareStatement(SQL_CREATE, Statement.RETURN_GENERATED_KEYS);
-      stmt.setString(1, horse.name());
-      stmt.setString(2, horse.description());
-      stmt.setString(3, horse.dateOfBirth().toString());
-      stmt.setString(4, horse.sex().toString());
-      stmt.setString(5, horse.ownerId() == null ? null : horse.ownerId().toString());
-      stmt.setString(6, horse.motherId() == null ? null : horse.motherId().toString());
-      stmt.setString(7, horse.fatherId() == null ? null : horse.fatherId().toString());
+      PreparedStatement stmt = con.prepareStatement(SQL_CREATE, KEY_COLUMNS);
+      setCreateParameters(stmt, horse);
       return stmt;
     }, keyHolder);
 
@@ -134,8 +245,61 @@ public class HorseJdbcDao implements HorseDao {
       throw new FatalException("Could not extract key for newly created horse.");
     }
 
+    Horse created = createdEntity(key.longValue(), horse);
+    AfterCommit.run(() -> {
+      pedigreeIndex.put(created);
+      textIndex.put(created);
+    });
+    return created;
+  }
+
+  @Override
+  public List<Horse> createAll(List<HorseCreateDto> horses) {
+    LOG.trace("createAll({} horses)", horses.size());
+
+    List<Horse> created = jdbcTemplate.execute(
+        (Connection con) -> con.prepareStatement(SQL_CREATE, KEY_COLUMNS),
+        (PreparedStatement stmt) -> {
+          for (HorseCreateDto horse : horses) {
+            setCreateParameters(stmt, horse);
+            stmt.addBatch();
+          }
+          stmt.executeBatch();
+
+          List<Horse> result = new ArrayList<>(horses.size());
+          try (ResultSet keys = stmt.getGeneratedKeys()) {
+            for (HorseCreateDto horse : horses) {
+              if (!keys.next()) {
+                LOG.error("Could not extract keys for newly created horses");
+                throw new FatalException("Could not extract keys for newly created horses.");
+              }
+              result.add(createdEntity(keys.getLong(1), horse));
+            }
+          }
+          return result;
+        });
+
+    // a rolled back batch must not show up in the indexes, so they are only updated after the commit
+    AfterCommit.run(() -> created.forEach(horse -> {
+      pedigreeIndex.put(horse);
+      textIndex.put(horse);
+    }));
+    return created;
+  }
+
+  private void setCreateParameters(PreparedStatement stmt, HorseCreateDto horse) throws SQLException {
+    stmt.setString(1, horse.name());
+    stmt.setString(2, horse.description());
+    stmt.setString(3, horse.dateOfBirth().toString());
+    stmt.setString(4, horse.sex().toString());
+    stmt.setString(5, horse.ownerId() == null ? null : horse.ownerId().toString());
+    stmt.setString(6, horse.motherId() == null ? null : horse.motherId().toString());
+    stmt.setString(7, horse.fatherId() == null ? null : horse.fatherId().toString());
+  }
+
+  private Horse createdEntity(long id, HorseCreateDto horse) {
     return new Horse()
-            .setId(key.longValue())
+            .setId(id)
             .setName(horse.name())
             .setDescription(horse.description())
             .setDateOfBirth(horse.dateOfBirth())
@@ -161,7 +325,7 @@ public class HorseJdbcDao implements HorseDao {
       throw new NotFoundException("Could not update horse with ID " + horse.id() + ", because it does not exist");
     }
 
-    return new Horse()
+    Horse updatedHorse = new Horse()
         .setId(horse.id())
         .setName(horse.name())
         .setDescription(horse.description())
@@ -171,6 +335,12 @@ public class HorseJdbcDao implements HorseDao {
         .setMotherId(horse.motherId())
         .setFatherId(horse.fatherId())
         ;
+    AfterCommit.run(() -> {
+      pedigreeIndex.put(updatedHorse);
+      textIndex.put(updatedHorse);
+      changeListeners.forEach(listener -> listener.horseChanged(updatedHorse.getId()));
+    });
+    return updatedHorse;
   }
 
   @Override
@@ -184,48 +354,45 @@ public class HorseJdbcDao implements HorseDao {
     if (update == 0) {
       throw new NotFoundException("Could not delete horse with ID " + id + ", because it does not exist");
     }
+    AfterCommit.run(() -> {
+      pedigreeIndex.remove(id);
+      textIndex.remove(id);
+      changeListeners.forEach(listener -> listener.horseChanged(id));
+    });
   }
 
   @Override
   public List<Horse> searchHorses(HorseSearchDto horseSearchDto) {
     LOG.trace("searchHorses({})", horseSearchDto);
-    String query = SQL_SEARCH;
-    List params = new ArrayList();
-
-    if (horseSearchDto.name() != null) {
-      params.add(horseSearchDto.name());
-      query = addNameToQuery(query);
-    }
-
-    if (horseSearchDto.description() != null) {
-      params.add(horseSearchDto.description());
-      query = addDescriptionToQuery(query, params);
-    }
+    SearchQuery query = SEARCH.compile(horseSearchDto);
+    return jdbcTemplate.query(query.sql(), query, this::mapRow);
+  }
 
-    if (horseSearchDto.bornBefore() != null) {
-      params.add(horseSearchDto.bornBefore());
-      query = addBornBeforeToQuery(query, params);
-    }
+  @Override
+  public List<HorseListDto> searchHorsesWithOwner(HorseSearchDto horseSearchDto) {
+    LOG.trace("searchHorsesWithOwner({})", horseSearchDto);
+    SearchQuery query = SEARCH_WITH_OWNER.compile(horseSearchDto);
+    return jdbcTemplate.query(query.sql(), query, this::mapListRow);
+  }
 
-    if (horseSearchDto.sex() != null) {
-      params.add(horseSearchDto.sex().toString());
-      query = addSexToQuery(query, params);
-    }
+  @Override
+  public void streamHorsesWithOwner(HorseSearchDto horseSearchDto, Consumer<HorseListDto> consumer) {
+    LOG.trace("streamHorsesWithOwner({})", horseSearchDto);
+    SearchQuery query = SEARCH_WITH_OWNER.compile(horseSearchDto);
 
-    if (horseSearchDto.ownerName() != null) {
-      params.add(horseSearchDto.ownerName());
-      query = addOwnerNameToQuery(query, params);
-    }
+    // the search is read in the order of the (name, id) index, so the lazy cursor hands out the first row
+    // without reading the rest of the result
+    queryLazily(query.sql(), query, result -> consumer.accept(mapListRow(result, result.getRow())));
+  }
 
-    if (horseSearchDto.maxAmount() != null) {
-      params.add(horseSearchDto.maxAmount());
-      query = query.concat(" LIMIT ?");
+  @Override
+  public List<HorseListDto> getListByIds(Collection<Long> ids) {
+    LOG.trace("getListByIds({})", ids);
+    if (ids.isEmpty()) {
+      return List.of();
     }
-
-    List<Horse> horses;
-    System.out.println(query);
-    horses = jdbcTemplate.query(query, this::mapRow, params.toArray());
-    return horses;
+    String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+    return jdbcTemplate.query(SQL_SEARCH_WITH_OWNER + " WHERE horse.id IN (" + placeholders + ")", this::mapListRow, ids.toArray());
   }
 
   @Override
@@ -242,52 +409,67 @@ public class HorseJdbcDao implements HorseDao {
   }
 
   @Override
-  public List<Horse> getChildren(long id) {
-    LOG.trace("getChildren(id:{})", id);
-    List<Horse> horses = jdbcTemplate.query(SQL_GET_CHILDREN, this::mapRowSec, id, id);
-
-    return horses;
+  public HorseValidationContext getValidationContext(Long horseId, Long ownerId, Long motherId, Long fatherId) {
+    LOG.trace("getValidationContext(horse:{}, owner:{}, mother:{}, father:{})", horseId, ownerId, motherId, fatherId);
+    return jdbcTemplate.queryForObject(SQL_VALIDATION_CONTEXT, this::mapValidationContext, horseId, ownerId, motherId, fatherId);
   }
 
-  private String addOwnerNameToQuery(String query, List params) {
-    LOG.trace("Adding owner name to search query({})", query);
-    if (params.size() > 1) {
-      return query.concat(" AND UPPER(owner.first_name ||' '|| owner.last_name) LIKE UPPER('%' || COALESCE(?, '') || '%')");
-    } else {
-      return query.concat(" WHERE UPPER(owner.first_name ||' '|| owner.last_name) LIKE UPPER('%' || COALESCE(?, '') || '%')");
-    }
-  }
-
-  private String addSexToQuery(String query, List params) {
-    LOG.trace("Adding sex to search query({})", query);
-    if (params.size() > 1) {
-      return query.concat(" AND horse.sex = ?");
-    } else {
-      return query.concat(" WHERE horse.sex = ?");
-    }
+  @Override
+  public void streamDescendants(long id, int generations, Integer maxAmount, Consumer<HorseDescendantDto> consumer) {
+    LOG.trace("streamDescendants(id:{}, generations:{}, maxAmount:{})", id, generations, maxAmount);
+    String query = maxAmount == null ? SQL_DESCENDANTS : SQL_DESCENDANTS + " LIMIT ?";
+    Object[] params = maxAmount == null
+        ? new Object[] {id, generations}
+        : new Object[] {id, generations, maxAmount};
+
+    // The recursion, grouping and sorting are computed by the database before the first row is returned,
+    // even by a lazy cursor. The cursor still keeps the DAO from collecting the descendants in a list.
+    queryLazily(query, new ArgumentPreparedStatementSetter(params), result -> consumer.accept(new HorseDescendantDto(
+        result.getLong("id"),
+        result.getString("name"),
+        result.getDate("date_of_birth").toLocalDate(),
+        Sex.valueOf(result.getString("sex")),
+        result.getObject("mother_id", Long.class),
+        result.getObject("father_id", Long.class),
+        result.getInt("generation"))));
   }
 
-  private String addBornBeforeToQuery(String query, List params) {
-    LOG.trace("Adding date of birth to search query({})", query);
-    if (params.size() > 1) {
-      return query.concat(" AND horse.date_of_birth <= ?");
-    } else {
-      return query.concat(" WHERE horse.date_of_birth <= ?");
-    }
+  /**
+   * Run {@code sql} on a forward-only cursor and hand every row to {@code handler}, while the cursor is still open.
+   * <p>
+   * H2 collects the whole result of a query before it returns the first row, and ignores the fetch size
+   * of an embedded connection. With lazy query execution, it reads a row only when the cursor is moved to it,
+   * as long as the query needs no sorting or grouping of its own.
+   * Lazy execution is a setting of the session, so it is reset before the pooled connection is used again.
+   * The fetch size still applies, when the database is accessed through its server.
+   * </p>
+   */
+  private void queryLazily(String sql, PreparedStatementSetter parameters, RowCallbackHandler handler) {
+    jdbcTemplate.execute((Connection con) -> {
+      try (Statement lazy = con.createStatement()) {
+        lazy.execute(SQL_LAZY_QUERY_EXECUTION + "TRUE");
+        try (PreparedStatement stmt = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+          stmt.setFetchSize(searchFetchSize);
+          parameters.setValues(stmt);
+          try (ResultSet result = stmt.executeQuery()) {
+            while (result.next()) {
+              handler.processRow(result);
+            }
+          }
+        } finally {
+          lazy.execute(SQL_LAZY_QUERY_EXECUTION + "FALSE");
+        }
+      }
+      return null;
+    });
   }
 
-  private String addDescriptionToQuery(String query, List params) {
-    LOG.trace("Adding description to search query({})", query);
-    if (params.size() > 1) {
-      return query.concat(" AND UPPER(horse.description) LIKE UPPER('%' || COALESCE(?, '') || '%')");
-    } else {
-      return query.concat(" WHERE UPPER(horse.description) LIKE UPPER('%' || COALESCE(?, '') || '%')");
-    }
-  }
+  @Override
+  public List<Horse> getChildren(long id) {
+    LOG.trace("getChildren(id:{})", id);
+    List<Horse> horses = jdbcTemplate.query(SQL_GET_CHILDREN, this::mapRowSec, id, id);
 
-  private String addNameToQuery(String query) {
-    LOG.trace("Adding name to search query({})", query);
-    return query.concat(" WHERE UPPER(horse.name) LIKE UPPER('%' || COALESCE(?, '') || '%')");
+    return horses;
   }
 
   private Horse mapRow(ResultSet result, int rownum) throws SQLException {
@@ -303,6 +485,71 @@ public class HorseJdbcDao implements HorseDao {
         ;
   }
 
+  private HorseListDto mapListRow(ResultSet result, int rownum) throws SQLException {
+    Long ownerId = result.getObject("owner_id", Long.class);
+    return new HorseListDto(
+        result.getLong("id"),
+        result.getString("name"),
+        result.getString("description"),
+        result.getDate("date_of_birth").toLocalDate(),
+        Sex.valueOf(result.getString("sex")),
+        mapOwner(result, ownerId)
+    );
+  }
+
+  private OwnerDto mapOwner(ResultSet result, Long ownerId) throws SQLException {
+    return ownerId == null
+        ? null
+        : new OwnerDto(ownerId, result.getString("owner_first_name"), result.getString("owner_last_name"), result.getString("owner_email"));
+  }
+
+  private HorseDetailDto mapDetailRow(ResultSet result, int rownum) throws SQLException {
+    Long ownerId = result.getObject("owner_id", Long.class);
+    Long motherId = result.getObject("mother_id", Long.class);
+    Long fatherId = result.getObject("father_id", Long.class);
+    return new HorseDetailDto(
+        result.getLong("id"),
+        result.getString("name"),
+        result.getString("description"),
+        result.getDate("date_of_birth").toLocalDate(),
+        Sex.valueOf(result.getString("sex")),
+        mapOwner(result, ownerId),
+        motherId == null ? null : new ParentDto(motherId, result.getString("mother_name")),
+        fatherId == null ? null : new ParentDto(fatherId, result.getString("father_name"))
+    );
+  }
+
+  private HorseValidationContext mapValidationContext(ResultSet result, int rownum) throws SQLException {
+    Long horseId = result.getObject("horse_id", Long.class);
+    Long ownerId = result.getObject("owner_id", Long.class);
+    return new HorseValidationContext(
+        horseId == null ? null : mapContextHorse(result, "horse").setId(horseId),
+        result.getBoolean("has_children"),
+        ownerId == null ? null : new Owner()
+            .setId(ownerId)
+            .setFirstName(result.getString("owner_first_name"))
+            .setLastName(result.getString("owner_last_name"))
+            .setEmail(result.getString("owner_email")),
+        mapContextParent(result, "mother"),
+        mapContextParent(result, "father")
+    );
+  }
+
+  private Horse mapContextParent(ResultSet result, String prefix) throws SQLException {
+    Long id = result.getObject(prefix + "_id", Long.class);
+    return id == null
+        ? null
+        : mapContextHorse(result, prefix)
+            .setId(id)
+            .setName(result.getString(prefix + "_name"));
+  }
+
+  private Horse mapContextHorse(ResultSet result, String prefix) throws SQLException {
+    return new Horse()
+        .setDateOfBirth(result.getDate(prefix + "_date_of_birth").toLocalDate())
+        .setSex(Sex.valueOf(result.getString(prefix + "_sex")));
+  }
+
   private Horse mapRowSec(ResultSet result, int rownum) throws SQLException {
     return new Horse()
             .setId(result.getLong("id"))
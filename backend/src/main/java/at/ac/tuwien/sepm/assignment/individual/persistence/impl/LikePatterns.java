@@ -0,0 +1,31 @@
+package at.ac.tuwien.sepm.assignment.individual.persistence.impl;
+
+import at.ac.tuwien.sepm.assignment.individual.type.MatchMode;
+import java.util.Locale;
+
+/**
+ * Builds the patterns for {@code LIKE} comparisons with upper-cased columns, like the {@code *_norm} columns.
+ */
+final class LikePatterns {
+
+  private LikePatterns() {
+  }
+
+  /**
+   * Get the pattern matching {@code text} ignoring case, as specified by {@code mode}.
+   * Wildcards in {@code text} are escaped, so that they only match themselves.
+   *
+   * @param text the text to search for
+   * @param mode how to match the text, {@code null} for {@link MatchMode#SUBSTRING}
+   * @return the pattern to compare an upper-cased column with
+   */
+  static String of(String text, MatchMode mode) {
+    String escaped = text.toUpperCase(Locale.ROOT)
+        .replace("\\", "\\\\")
+        .replace("%", "\\%")
+        .replace("_", "\\_");
+    return mode == MatchMode.PREFIX
+        ? escaped + "%"
+        : "%" + escaped + "%";
+  }
+}
@@ -3,20 +3,28 @@ package at.ac.tuwien.sepm.assignment.individual.persistence.impl;
 import at.ac.tuwien.sepm.assignment.individual.dto.OwnerCreateDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.OwnerSearchDto;
 import at.ac.tuwien.sepm.assignment.individual.entity.Owner;
+import at.ac.tuwien.sepm.assignment.individual.exception.ConflictException;
 import at.ac.tuwien.sepm.assignment.individual.exception.FatalException;
 import at.ac.tuwien.sepm.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepm.assignment.individual.persistence.OwnerCache;
 import at.ac.tuwien.sepm.assignment.individual.persistence.OwnerDao;
+import at.ac.tuwien.sepm.assignment.individual.persistence.OwnerNameIndex;
+import at.ac.tuwien.sepm.assignment.individual.type.MatchMode;
+import jakarta.annotation.PostConstruct;
 import java.lang.invoke.MethodHandles;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
@@ -28,26 +36,51 @@ public class OwnerJdbcDao implements OwnerDao {
   private static final String TABLE_NAME = "owner";
   private static final String SQL_SELECT_BY_ID = "SELECT * FROM " + TABLE_NAME + " WHERE id = ?";
   private static final String SQL_SELECT_ALL = "SELECT * FROM " + TABLE_NAME + " WHERE id IN (:ids)";
-  private static final String SQL_SELECT_SEARCH = "SELECT * FROM " + TABLE_NAME
-      + " WHERE UPPER(first_name||' '||last_name) like UPPER('%'||COALESCE(?, '')||'%')";
+  private static final String SQL_SELECT_EVERY_OWNER = "SELECT * FROM " + TABLE_NAME;
+  private static final String SQL_SELECT_BY_NAME_PREFIX = "SELECT * FROM " + TABLE_NAME
+      + " WHERE name_norm LIKE ? ORDER BY name_norm, id";
   private static final String SQL_SELECT_SEARCH_LIMIT_CLAUSE = " LIMIT ?";
   private static final String SQL_CREATE = "INSERT INTO " + TABLE_NAME + " (first_name, last_name, email) VALUES (?, ?, ?)";
 
-  private static final String SQL_SELECT_BY_EMAIL = "SELECT * FROM " + TABLE_NAME + " WHERE UPPER(email) = UPPER(?)";
+  // the normalized columns are generated as well, so the ID has to be requested explicitly as the only key
+  private static final String[] KEY_COLUMNS = {"id"};
 
 
   private final JdbcTemplate jdbcTemplate;
   private final NamedParameterJdbcTemplate jdbcNamed;
+  private final OwnerNameIndex nameIndex;
+  private final OwnerCache cache;
 
-  public OwnerJdbcDao(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate jdbcNamed) {
+  public OwnerJdbcDao(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate jdbcNamed, OwnerNameIndex nameIndex, OwnerCache cache) {
     this.jdbcTemplate = jdbcTemplate;
     this.jdbcNamed = jdbcNamed;
+    this.nameIndex = nameIndex;
+    this.cache = cache;
+  }
+
+  /**
+   * Executed once when the component is instantiated. Loads all owners into the {@link OwnerNameIndex}.
+   */
+  @PostConstruct
+  public void loadIndex() {
+    LOG.trace("loadIndex()");
+    nameIndex.rebuild(getAll());
+  }
+
+  @Override
+  public List<Owner> getAll() {
+    LOG.trace("getAll()");
+    return jdbcTemplate.query(SQL_SELECT_EVERY_OWNER, this::mapRow);
   }
 
 
   @Override
   public Owner getById(long id) throws NotFoundException {
     LOG.trace("getById({})", id);
+    Owner cached = cache.get(id);
+    if (cached != null) {
+      return cached;
+    }
     List<Owner> owners = jdbcTemplate.query(SQL_SELECT_BY_ID, this::mapRow, id);
     if (owners.isEmpty()) {
       throw new NotFoundException("Owner with ID %d not found".formatted(id));
@@ -56,21 +89,29 @@ public class OwnerJdbcDao implements OwnerDao {
       // If this happens, something is wrong with either the DB or the select
       throw new FatalException("Found more than one owner with ID %d".formatted(id));
     }
+    cache.put(owners.get(0));
     return owners.get(0);
   }
 
   @Override
-  public Owner create(OwnerCreateDto newOwner) {
+  public Owner create(OwnerCreateDto newOwner) throws ConflictException {
     LOG.trace("create({})", newOwner);
 
     GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
-    jdbcTemplate.update(con -> {
-      PreparedStatement stmt = con.prepareStatement(SQL_CREATE, Statement.RETURN_GENERATED_KEYS);
-      stmt.setString(1, newOwner.firstName());
-      stmt.setString(2, newOwner.lastName());
-      stmt.setString(3, newOwner.email());
-      return stmt;
-    }, keyHolder);
+    try {
+      jdbcTemplate.update(con -> {
+        PreparedStatement stmt = con.prepareStatement(SQL_CREATE, KEY_COLUMNS);
+        stmt.setString(1, newOwner.firstName());
+        stmt.setString(2, newOwner.lastName());
+        stmt.setString(3, newOwner.email());
+        return stmt;
+      }, keyHolder);
+    } catch (DuplicateKeyException e) {
+      // the only unique key, that is not generated, is the email (ignoring case, see owner_email_norm_idx).
+      // Leaving the check to the insert saves a round trip, and also holds for concurrent creates.
+      LOG.warn("Owner with email {} already exists", newOwner.email());
+      throw new ConflictException("There are conflicts in the owner", List.of("Email of the owner must be unique"));
+    }
 
     Number key = keyHolder.getKey();
     if (key == null) {
@@ -78,46 +119,78 @@ public class OwnerJdbcDao implements OwnerDao {
       throw new FatalException("Could not extract key for newly created owner. There is probably a programming error…");
     }
 
-    return new Owner()
+    Owner owner = new Owner()
         .setId(key.longValue())
         .setFirstName(newOwner.firstName())
         .setLastName(newOwner.lastName())
-        .setEmail(newOwner.email())
-        ;
+        .setEmail(newOwner.email());
+    AfterCommit.run(() -> {
+      nameIndex.put(owner);
+      cache.put(owner);
+    });
+    return owner;
   }
 
   @Override
   public Collection<Owner> getAllById(Collection<Long> ids) {
     LOG.trace("getAllById({})", ids);
-    var statementParams = Collections.singletonMap("ids", ids);
-    return jdbcNamed.query(SQL_SELECT_ALL, statementParams, this::mapRow);
+    List<Owner> owners = new ArrayList<>(ids.size());
+    Set<Long> uncached = new HashSet<>();
+    for (long id : new HashSet<>(ids)) {
+      Owner cached = cache.get(id);
+      if (cached != null) {
+        owners.add(cached);
+      } else {
+        uncached.add(id);
+      }
+    }
+    if (uncached.isEmpty()) {
+      return owners;
+    }
+    var statementParams = Collections.singletonMap("ids", uncached);
+    for (Owner owner : jdbcNamed.query(SQL_SELECT_ALL, statementParams, this::mapRow)) {
+      cache.put(owner);
+      owners.add(owner);
+    }
+    return owners;
   }
 
   @Override
   public Collection<Owner> search(OwnerSearchDto searchParameters) {
     LOG.trace("search({})", searchParameters);
-    var query = SQL_SELECT_SEARCH;
-    var params = new ArrayList<>();
-    params.add(searchParameters.name());
+    var name = searchParameters.name();
     var maxAmount = searchParameters.maxAmount();
-    if (maxAmount != null) {
-      query += SQL_SELECT_SEARCH_LIMIT_CLAUSE;
-      params.add(maxAmount);
+    if (name == null || name.isEmpty()) {
+      // every owner matches, the index can not narrow down anything
+      var query = SQL_SELECT_EVERY_OWNER;
+      var params = new ArrayList<>();
+      if (maxAmount != null) {
+        query += SQL_SELECT_SEARCH_LIMIT_CLAUSE;
+        params.add(maxAmount);
+      }
+      return jdbcTemplate.query(query, this::mapRow, params.toArray());
     }
-    return jdbcTemplate.query(query, this::mapRow, params.toArray());
-  }
 
-  @Override
-  public Owner getOwnerByEmail(String email) {
-    LOG.trace("getByEmail({})", email);
-    List<Owner> owners = jdbcTemplate.query(SQL_SELECT_BY_EMAIL, this::mapRow, email);
-    if (owners.isEmpty()) {
-      return null;
+    if (searchParameters.nameMatch() == MatchMode.PREFIX) {
+      // a prefix can be looked up in the index of the normalized name, which also yields the owners sorted by name
+      var query = SQL_SELECT_BY_NAME_PREFIX;
+      var params = new ArrayList<>();
+      params.add(LikePatterns.of(name, MatchMode.PREFIX));
+      if (maxAmount != null) {
+        query += SQL_SELECT_SEARCH_LIMIT_CLAUSE;
+        params.add(maxAmount);
+      }
+      return jdbcTemplate.query(query, this::mapRow, params.toArray());
     }
-    if (owners.size() > 1) {
-      throw new FatalException("Found more than one owner with email %d".formatted(email));
+
+    // the substring match happens in the name index, the data store only has to deliver the matched owners
+    List<Long> ids = nameIndex.search(name, maxAmount);
+    if (ids.isEmpty()) {
+      return List.of();
     }
-    return owners.get(0);
+    List<Owner> owners = new ArrayList<>(getAllById(ids));
+    owners.sort(Comparator.comparingLong(Owner::getId));
+    return owners;
   }
 
   private Owner mapRow(ResultSet resultSet, int i) throws SQLException {
@@ -0,0 +1,122 @@
+package at.ac.tuwien.sepm.assignment.individual.persistence.impl;
+
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseSearchDto;
+import at.ac.tuwien.sepm.assignment.individual.type.MatchMode;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+/**
+ * Compiles a {@link HorseSearchDto} into a parameterized search query on top of a given select.
+ * <p>
+ * Which filters a search uses, and whether it has a cursor and a maximum amount, determines the shape of its query.
+ * The SQL of every shape is built once, when the compiler is created, so a search only picks its statement
+ * and binds its parameters, instead of assembling the SQL anew.
+ * </p>
+ */
+final class SearchQueryCompiler {
+
+  private static final int NAME = 1;
+  private static final int DESCRIPTION = 1 << 1;
+  private static final int BORN_BEFORE = 1 << 2;
+  private static final int SEX = 1 << 3;
+  private static final int OWNER_NAME = 1 << 4;
+  private static final int CURSOR = 1 << 5;
+  private static final int LIMIT = 1 << 6;
+  private static final int SHAPE_COUNT = 1 << 7;
+
+  // conditions of the shape bits NAME to CURSOR, in the order their parameters are bound
+  private static final String[] CONDITIONS = {
+      // the normalized columns are upper-cased already, so a prefix pattern can be looked up in their index
+      "horse.name_norm LIKE ?",
+      "UPPER(horse.description) LIKE ?",
+      "horse.date_of_birth <= ?",
+      "horse.sex = ?",
+      "owner.name_norm LIKE ?",
+      // keyset condition on the sort order, so that a page does not need to skip the rows of previous pages;
+      // the leading range condition on the name lets the page start right at the cursor in the (name, id) index
+      "horse.name >= ? AND (horse.name > ? OR horse.id > ?)",
+  };
+
+  private final String[] statements = new String[SHAPE_COUNT];
+
+  /**
+   * Create a compiler for searches on top of {@code select}, which must not have a {@code WHERE} clause of its own.
+   *
+   * @param select the select, whose rows are filtered
+   */
+  SearchQueryCompiler(String select) {
+    for (int shape = 0; shape < SHAPE_COUNT; shape++) {
+      List<String> conditions = new ArrayList<>();
+      for (int filter = 0; filter < CONDITIONS.length; filter++) {
+        if ((shape & (1 << filter)) != 0) {
+          conditions.add(CONDITIONS[filter]);
+        }
+      }
+      StringBuilder statement = new StringBuilder(select);
+      if (!conditions.isEmpty()) {
+        statement.append(" WHERE ").append(String.join(" AND ", conditions));
+      }
+      statement.append(" ORDER BY horse.name, horse.id");
+      if ((shape & LIMIT) != 0) {
+        statement.append(" LIMIT ?");
+      }
+      statements[shape] = statement.toString();
+    }
+  }
+
+  /**
+   * Get the query searching for the horses matching {@code search}.
+   *
+   * @param search the search parameters, each of them can be {@code null}
+   * @return the query, whose parameters are bound from {@code search}
+   */
+  SearchQuery compile(HorseSearchDto search) {
+    int shape = 0;
+    shape |= search.name() != null ? NAME : 0;
+    shape |= search.description() != null ? DESCRIPTION : 0;
+    shape |= search.bornBefore() != null ? BORN_BEFORE : 0;
+    shape |= search.sex() != null ? SEX : 0;
+    shape |= search.ownerName() != null ? OWNER_NAME : 0;
+    shape |= search.cursor() != null ? CURSOR : 0;
+    shape |= search.maxAmount() != null ? LIMIT : 0;
+    return new SearchQuery(statements[shape], search);
+  }
+
+  /**
+   * A compiled search query, that binds the parameters of its search with their SQL types.
+   */
+  record SearchQuery(String sql, HorseSearchDto search) implements PreparedStatementSetter {
+
+    @Override
+    public void setValues(PreparedStatement stmt) throws SQLException {
+      int index = 1;
+      if (search.name() != null) {
+        stmt.setString(index++, LikePatterns.of(search.name(), search.nameMatch()));
+      }
+      if (search.description() != null) {
+        stmt.setString(index++, LikePatterns.of(search.description(), MatchMode.SUBSTRING));
+      }
+      if (search.bornBefore() != null) {
+        stmt.setDate(index++, Date.valueOf(search.bornBefore()));
+      }
+      if (search.sex() != null) {
+        stmt.setString(index++, search.sex().name());
+      }
+      if (search.ownerName() != null) {
+        stmt.setString(index++, LikePatterns.of(search.ownerName(), search.nameMatch()));
+      }
+      if (search.cursor() != null) {
+        stmt.setString(index++, search.cursor().name());
+        stmt.setString(index++, search.cursor().name());
+        stmt.setLong(index++, search.cursor().id());
+      }
+      if (search.maxAmount() != null) {
+        stmt.setInt(index, search.maxAmount());
+      }
+    }
+  }
+}
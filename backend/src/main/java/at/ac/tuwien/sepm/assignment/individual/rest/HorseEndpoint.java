@@ -1,29 +1,44 @@
 package at.ac.tuwien.sepm.assignment.individual.rest;
 
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseBatchEntryDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseCreateDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseDescendantDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseDetailDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseFamilyGraphDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseFamilyTreeDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseListDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseSearchCursor;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseSearchDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseTextSearchDto;
 import at.ac.tuwien.sepm.assignment.individual.exception.ConflictException;
 import at.ac.tuwien.sepm.assignment.individual.exception.NotFoundException;
 import at.ac.tuwien.sepm.assignment.individual.exception.ValidationException;
 import at.ac.tuwien.sepm.assignment.individual.service.HorseService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandles;
-import java.util.stream.Stream;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
 @RequestMapping(path = HorseEndpoint.BASE_PATH)
@@ -32,15 +47,57 @@ public class HorseEndpoint {
   static final String BASE_PATH = "/horses";
 
   private final HorseService service;
+  private final ObjectMapper objectMapper;
 
-  public HorseEndpoint(HorseService service) {
+  public HorseEndpoint(HorseService service, ObjectMapper objectMapper) {
     this.service = service;
+    this.objectMapper = objectMapper;
   }
 
   @GetMapping
-  public Stream<HorseListDto> searchHorses(HorseSearchDto searchParameters) {
+  public ResponseEntity<List<HorseListDto>> searchHorses(HorseSearchDto searchParameters) {
     LOG.info("GET " + BASE_PATH + " query parameters: {}", searchParameters.maxAmount());
-    return service.searchHorses(searchParameters);
+    List<HorseListDto> horses = service.searchHorses(searchParameters).toList();
+
+    // a full page may be followed by more horses, so link the page continuing after the last horse
+    if (searchParameters.maxAmount() != null && !horses.isEmpty() && horses.size() == searchParameters.maxAmount()) {
+      HorseListDto last = horses.get(horses.size() - 1);
+      String next = ServletUriComponentsBuilder.fromCurrentRequest()
+          .replaceQueryParam("cursor", new HorseSearchCursor(last.name(), last.id()).encode())
+          .toUriString();
+      return ResponseEntity.ok()
+          .header(HttpHeaders.LINK, "<%s>; rel=\"next\"".formatted(next))
+          .body(horses);
+    }
+    return ResponseEntity.ok(horses);
+  }
+
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamHorses(HorseSearchDto searchParameters) {
+    LOG.info("GET " + BASE_PATH + " as stream, query parameters: {}", searchParameters.maxAmount());
+    // every horse is written as one line as soon as it is read, instead of collecting all horses first
+    StreamingResponseBody body = out -> {
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+        generator.setRootValueSeparator(null);
+        service.streamHorses(searchParameters, horse -> {
+          try {
+            generator.writeObject(horse);
+            generator.writeRaw('\n');
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      }
+    };
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(body);
+  }
+
+  @GetMapping("search")
+  public List<HorseListDto> searchHorsesByText(HorseTextSearchDto searchParameters) {
+    LOG.info("GET " + BASE_PATH + "/search query parameters: {}", searchParameters);
+    return service.searchHorsesByText(searchParameters);
   }
 
   @GetMapping("{id}")
@@ -77,6 +134,14 @@ public class HorseEndpoint {
     return service.create(toCreate);
   }
 
+  @PostMapping("batch")
+  @ResponseStatus(HttpStatus.CREATED)
+  public List<HorseListDto> postBatch(@RequestBody List<HorseBatchEntryDto> toCreate) throws ValidationException, ConflictException {
+    LOG.info("POST " + BASE_PATH + "/batch");
+    LOG.debug("Body of request: {} horses", toCreate.size());
+    return service.createBatch(toCreate);
+  }
+
   @DeleteMapping("{id}")
   @ResponseStatus(HttpStatus.NO_CONTENT)
   public void delete(@PathVariable long id) {
@@ -104,6 +169,69 @@ public class HorseEndpoint {
     }
   }
 
+  @GetMapping(path = "{id}/familytree/{generation}", params = "format=graph")
+  public HorseFamilyGraphDto getFamilyGraph(@PathVariable("id") long id, @PathVariable("generation") int generation) {
+    LOG.info("GET " + BASE_PATH + "/{}/familytree/{}?format=graph", id, generation);
+
+    try {
+      return service.getFamilyGraph(id, generation);
+    } catch (NotFoundException e) {
+      HttpStatus status = HttpStatus.NOT_FOUND;
+      logClientError(status, "Horse whose family tree is fetched is not found", e);
+      throw new ResponseStatusException(status, e.getMessage(), e);
+    }
+  }
+
+  @GetMapping(path = "{id}/descendants/{generations}")
+  public List<HorseDescendantDto> getDescendants(@PathVariable("id") long id, @PathVariable("generations") int generations,
+                                                 @RequestParam(required = false) Integer maxAmount) throws ValidationException {
+    LOG.info("GET " + BASE_PATH + "/{}/descendants/{} maxAmount: {}", id, generations, maxAmount);
+
+    try {
+      return service.getDescendants(id, generations, maxAmount);
+    } catch (NotFoundException e) {
+      HttpStatus status = HttpStatus.NOT_FOUND;
+      logClientError(status, "Horse whose descendants are fetched is not found", e);
+      throw new ResponseStatusException(status, e.getMessage(), e);
+    }
+  }
+
+  @GetMapping(path = "{id}/descendants/{generations}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamDescendants(@PathVariable("id") long id, @PathVariable("generations") int generations,
+                                                                 @RequestParam(required = false) Integer maxAmount) {
+    LOG.info("GET " + BASE_PATH + "/{}/descendants/{} as stream, maxAmount: {}", id, generations, maxAmount);
+    // checked before the stream starts, so that a failed check still gets its own status;
+    // the validation error is not left to the exception handler, whose JSON body can not be written as NDJSON
+    try {
+      service.checkDescendants(id, generations, maxAmount);
+    } catch (ValidationException e) {
+      HttpStatus status = HttpStatus.UNPROCESSABLE_ENTITY;
+      logClientError(status, "Descendants request is invalid", e);
+      throw new ResponseStatusException(status, e.getMessage(), e);
+    } catch (NotFoundException e) {
+      HttpStatus status = HttpStatus.NOT_FOUND;
+      logClientError(status, "Horse whose descendants are fetched is not found", e);
+      throw new ResponseStatusException(status, e.getMessage(), e);
+    }
+    // every descendant is written as one line as soon as it is read, instead of collecting all descendants first
+    StreamingResponseBody body = out -> {
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+        generator.setRootValueSeparator(null);
+        service.streamDescendants(id, generations, maxAmount, descendant -> {
+          try {
+            generator.writeObject(descendant);
+            generator.writeRaw('\n');
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      }
+    };
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(body);
+  }
+
 
   private void logClientError(HttpStatus status, String message, Exception e) {
     LOG.warn("{} {}: {}: {}", status.value(), message, e.getClass().getSimpleName(), e.getMessage());
@@ -1,14 +1,20 @@
 package at.ac.tuwien.sepm.assignment.individual.service;
 
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseBatchEntryDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseCreateDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseDescendantDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseDetailDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseFamilyGraphDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseFamilyTreeDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseListDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseSearchDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseTextSearchDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.ParentDto;
 import at.ac.tuwien.sepm.assignment.individual.exception.ConflictException;
 import at.ac.tuwien.sepm.assignment.individual.exception.NotFoundException;
 import at.ac.tuwien.sepm.assignment.individual.exception.ValidationException;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /**
@@ -33,6 +39,18 @@ public interface HorseService {
    */
   HorseDetailDto create(HorseCreateDto horse) throws ValidationException, ConflictException;
 
+  /**
+   * Creates all horses of {@code batch} in the persistent data store, in one transaction.
+   * Horses of the batch can have other horses of the same batch as parents.
+   * If any horse of the batch is invalid, no horse is created.
+   *
+   * @param batch the horses to create
+   * @return the created horses, in the same order as {@code batch}
+   * @throws ValidationException if the create data given for a horse is in itself incorrect, or refers to a parent not in the batch
+   * @throws ConflictException if the create data given for a horse is causing conflicts with the current data in the system
+   */
+  List<HorseListDto> createBatch(List<HorseBatchEntryDto> batch) throws ValidationException, ConflictException;
+
   /**
    * Updates the horse with the ID given in {@code horse}
    * with the data given in {@code horse}
@@ -84,9 +102,12 @@ public interface HorseService {
    * before {@code horseSearchDto.bornBefore}, if its sex is {@code horseSearchDto.sex}, if its
    * owner name contains {@code horseSearchDto.ownerName} as a substring. If multiple criteria
    * are given, then the results must satisfy every criteria.
+   * If {@code horseSearchDto.nameMatch} is {@code PREFIX}, the names have to start with the given names instead.
    *
    * The returned stream of horses never contains more than {@code horseSearchDto.maxAmount} elements,
    *  even if there would be more matches in the persistent data store.
+   * The horses are sorted by name and ID. If {@code horseSearchDto.cursor} is given,
+   *  only horses sorted after the cursor are returned.
    * </p>
    *
    * @param horseSearchDto object containing the search parameters to match
@@ -94,6 +115,25 @@ public interface HorseService {
    */
   Stream<HorseListDto> searchHorses(HorseSearchDto horseSearchDto);
 
+  /**
+   * Search for horses matching the criteria in {@code horseSearchDto}, like {@link #searchHorses(HorseSearchDto)}.
+   * Every horse is handed to {@code consumer} as soon as it is read from the persistent data store.
+   *
+   * @param horseSearchDto object containing the search parameters to match
+   * @param consumer receives every horse matching the criteria in {@code horseSearchDto}
+   */
+  void streamHorses(HorseSearchDto horseSearchDto, Consumer<HorseListDto> consumer);
+
+  /**
+   * Search for horses, whose name or description contain the words of {@code searchDto.text}.
+   * The horses are ranked by how well they match, the best match first.
+   * If {@code searchDto.maxAmount} is not given, at most 20 horses are returned.
+   *
+   * @param searchDto the text to search for, and the maximum number of horses to return
+   * @return the best matching horses
+   */
+  List<HorseListDto> searchHorsesByText(HorseTextSearchDto searchDto);
+
   /**
    * Get the HorseFamilyTreeDto that contains all horses that
    * is in the family tree of the horse
@@ -106,4 +146,54 @@ public interface HorseService {
    * @throws NotFoundException if the Horse with the given ID does not exist in the persistent data store
    */
   HorseFamilyTreeDto getFamilyTree(long id, int generation) throws NotFoundException;
+
+  /**
+   * Get the same family tree as {@link #getFamilyTree(long, int)}, but as HorseFamilyGraphDto,
+   * that contains every horse of the family tree only once, even if it is an ancestor on more than one path.
+   *
+   * @param id the id of the root horse
+   * @param generation the number of generations to fetch
+   * @return the family tree as graph of horses and their parents
+   * @throws NotFoundException if the Horse with the given ID does not exist in the persistent data store
+   */
+  HorseFamilyGraphDto getFamilyGraph(long id, int generation) throws NotFoundException;
+
+  /**
+   * Get the descendants of the horse whose id is given in {@code id}.
+   * How many generations are included is specified in {@code generations}, the children being the first one.
+   * Every descendant is contained only once, with the closest generation it belongs to.
+   * The descendants are ordered by generation and ID.
+   *
+   * @param id the id of the ancestor
+   * @param generations the number of generations to fetch
+   * @param maxAmount the maximum number of descendants to return, or {@code null} to return all of them
+   * @return the descendants of the horse
+   * @throws ValidationException if {@code generations} or {@code maxAmount} is not positive
+   * @throws NotFoundException if the Horse with the given ID does not exist in the persistent data store
+   */
+  List<HorseDescendantDto> getDescendants(long id, int generations, Integer maxAmount) throws ValidationException, NotFoundException;
+
+  /**
+   * Check a request for the descendants of the horse whose id is given in {@code id},
+   * before they are handed over by {@link #streamDescendants(long, int, Integer, Consumer)}.
+   *
+   * @param id the id of the ancestor
+   * @param generations the number of generations to fetch
+   * @param maxAmount the maximum number of descendants to hand over, or {@code null} to hand over all of them
+   * @throws ValidationException if {@code generations} or {@code maxAmount} is not positive
+   * @throws NotFoundException if the Horse with the given ID does not exist in the persistent data store
+   */
+  void checkDescendants(long id, int generations, Integer maxAmount) throws ValidationException, NotFoundException;
+
+  /**
+   * Get the same descendants as {@link #getDescendants(long, int, Integer)},
+   * but hand every one of them to {@code consumer} as soon as it is read from the persistent data store.
+   * The request is not checked, so it has to be passed to {@link #checkDescendants(long, int, Integer)} first.
+   *
+   * @param id the id of the ancestor
+   * @param generations the number of generations to fetch
+   * @param maxAmount the maximum number of descendants to hand over, or {@code null} to hand over all of them
+   * @param consumer receives every descendant
+   */
+  void streamDescendants(long id, int generations, Integer maxAmount, Consumer<HorseDescendantDto> consumer);
 }
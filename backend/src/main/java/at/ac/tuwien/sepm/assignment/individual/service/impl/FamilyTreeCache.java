@@ -0,0 +1,154 @@
+package at.ac.tuwien.sepm.assignment.individual.service.impl;
+
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseFamilyTreeDto;
+import at.ac.tuwien.sepm.assignment.individual.persistence.HorseChangeListener;
+import at.ac.tuwien.sepm.assignment.individual.persistence.HorseDao;
+import java.lang.invoke.MethodHandles;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size-bounded cache of family trees by their root horse and the number of generations they include.
+ * <p>
+ * For every horse, the cache holds the cached trees, that contain it, so a change of a horse only invalidates
+ * the trees it is part of. A horse, that is more generations away from the root than a tree includes,
+ * is not part of that tree, and changing it keeps the tree cached.
+ * When the cache is full, the least recently used tree is evicted.
+ * </p>
+ * <p>
+ * The cache is kept consistent by the write operations of {@link HorseDao}, which signal every changed horse
+ * to the cache as a {@link HorseChangeListener}.
+ * </p>
+ */
+@Component
+public class FamilyTreeCache implements HorseChangeListener {
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private record Key(long id, int generations) {
+  }
+
+  private record Entry(HorseFamilyTreeDto tree, Collection<Long> horseIds) {
+  }
+
+  private final int maxSize;
+  // access order, so that the first entry is the least recently used one
+  private final LinkedHashMap<Key, Entry> trees = new LinkedHashMap<>(16, 0.75f, true);
+  // horse ID -> cached trees containing the horse
+  private final Map<Long, Set<Key>> treesByHorse = new HashMap<>();
+  // incremented by every invalidation, so that a tree assembled before an invalidation is not cached after it
+  private long version;
+
+  public FamilyTreeCache(@Value("${horse.family-tree.cache.max-size:1000}") int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Get the cached family tree of the horse with the given ID.
+   *
+   * @param id the ID of the root horse
+   * @param generations the number of generations of the tree
+   * @return the family tree, or {@code null} if it is not cached
+   */
+  public synchronized HorseFamilyTreeDto get(long id, int generations) {
+    Entry entry = trees.get(new Key(id, generations));
+    return entry == null ? null : entry.tree();
+  }
+
+  /**
+   * Get the current version of the cache, which has to be passed to {@link #put}.
+   * Read it before reading the horses of a tree.
+   *
+   * @return the version of the cache
+   */
+  public synchronized long version() {
+    return version;
+  }
+
+  /**
+   * Add the given family tree to the cache.
+   * If a horse was invalidated since {@code version} was read, the tree may be outdated already, and is not added.
+   *
+   * @param id the ID of the root horse
+   * @param generations the number of generations of the tree
+   * @param tree the family tree
+   * @param horseIds the IDs of all horses in the tree, including the root
+   * @param version the version of the cache, read before the horses of the tree were read
+   */
+  public synchronized void put(long id, int generations, HorseFamilyTreeDto tree, Collection<Long> horseIds, long version) {
+    if (version != this.version) {
+      return;
+    }
+    Key key = new Key(id, generations);
+    unlink(key, trees.put(key, new Entry(tree, Set.copyOf(horseIds))));
+    for (long horseId : horseIds) {
+      treesByHorse.computeIfAbsent(horseId, h -> new HashSet<>()).add(key);
+    }
+    Iterator<Map.Entry<Key, Entry>> leastRecentlyUsed = trees.entrySet().iterator();
+    while (trees.size() > maxSize) {
+      Map.Entry<Key, Entry> eldest = leastRecentlyUsed.next();
+      leastRecentlyUsed.remove();
+      unlink(eldest.getKey(), eldest.getValue());
+    }
+  }
+
+  /**
+   * Remove all cached family trees, that contain the horse with the given ID.
+   *
+   * @param horseId the ID of the changed or deleted horse
+   */
+  public synchronized void invalidate(long horseId) {
+    LOG.trace("invalidate({})", horseId);
+    version++;
+    Set<Key> keys = treesByHorse.remove(horseId);
+    if (keys == null) {
+      return;
+    }
+    for (Key key : keys) {
+      unlink(key, trees.remove(key));
+    }
+  }
+
+  @Override
+  public void horseChanged(long id) {
+    invalidate(id);
+  }
+
+  @Override
+  public void allHorsesChanged() {
+    clear();
+  }
+
+  /**
+   * Remove all family trees from the cache.
+   */
+  public synchronized void clear() {
+    LOG.trace("clear()");
+    version++;
+    trees.clear();
+    treesByHorse.clear();
+  }
+
+  private void unlink(Key key, Entry entry) {
+    if (entry == null) {
+      return;
+    }
+    for (long horseId : entry.horseIds()) {
+      Set<Key> keys = treesByHorse.get(horseId);
+      if (keys != null) {
+        keys.remove(key);
+        if (keys.isEmpty()) {
+          treesByHorse.remove(horseId);
+        }
+      }
+    }
+  }
+}
@@ -1,45 +1,67 @@
 package at.ac.tuwien.sepm.assignment.individual.service.impl;
 
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseBatchEntryDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseCreateDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseDescendantDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseDetailDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseFamilyGraphDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseFamilyTreeDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseListDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseSearchDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseTextSearchDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.OwnerDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.ParentDto;
 import at.ac.tuwien.sepm.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepm.assignment.individual.entity.HorseValidationContext;
 import at.ac.tuwien.sepm.assignment.individual.exception.ConflictException;
 import at.ac.tuwien.sepm.assignment.individual.exception.FatalException;
 import at.ac.tuwien.sepm.assignment.individual.exception.NotFoundException;
 import at.ac.tuwien.sepm.assignment.individual.exception.ValidationException;
 import at.ac.tuwien.sepm.assignment.individual.mapper.HorseMapper;
 import at.ac.tuwien.sepm.assignment.individual.persistence.HorseDao;
+import at.ac.tuwien.sepm.assignment.individual.persistence.HorseTextIndex;
+import at.ac.tuwien.sepm.assignment.individual.persistence.PedigreeIndex;
 import at.ac.tuwien.sepm.assignment.individual.service.HorseService;
 import at.ac.tuwien.sepm.assignment.individual.service.OwnerService;
 import java.lang.invoke.MethodHandles;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class HorseServiceImpl implements HorseService {
   private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int DEFAULT_TEXT_SEARCH_AMOUNT = 20;
   private final HorseDao dao;
   private final HorseMapper mapper;
   private final HorseValidator validator;
   private final OwnerService ownerService;
+  private final PedigreeIndex pedigreeIndex;
+  private final HorseTextIndex textIndex;
+  private final FamilyTreeCache familyTreeCache;
 
-  public HorseServiceImpl(HorseDao dao, HorseMapper mapper, HorseValidator validator, OwnerService ownerService) {
+  public HorseServiceImpl(HorseDao dao, HorseMapper mapper, HorseValidator validator, OwnerService ownerService,
+                          PedigreeIndex pedigreeIndex, HorseTextIndex textIndex, FamilyTreeCache familyTreeCache) {
     this.dao = dao;
     this.mapper = mapper;
     this.validator = validator;
     this.ownerService = ownerService;
+    this.pedigreeIndex = pedigreeIndex;
+    this.textIndex = textIndex;
+    this.familyTreeCache = familyTreeCache;
   }
 
   @Override
@@ -63,37 +85,91 @@ public class HorseServiceImpl implements HorseService {
   @Override
   public HorseDetailDto create(HorseCreateDto horse) throws ValidationException, ConflictException {
     LOG.trace("create({})", horse);
-    validator.validateForCreate(horse);
+    // the owner and parents read for the validation are also those of the response, so they are not read again
+    HorseValidationContext context = validator.validateForCreate(horse);
     Horse createdHorse = dao.create(horse);
-    return mapper.entityToDetailDto(
-            createdHorse,
-            ownerMapForSingleId(createdHorse.getOwnerId()),
-            parentMapForSingleId(createdHorse.getMotherId()),
-            parentMapForSingleId(createdHorse.getFatherId())
-    );
+    return mapper.entityToDetailDto(createdHorse, context);
+  }
+
+  @Override
+  @Transactional
+  public List<HorseListDto> createBatch(List<HorseBatchEntryDto> batch) throws ValidationException, ConflictException {
+    LOG.trace("createBatch({} horses)", batch == null ? null : batch.size());
+    validator.validateForBatchCreate(batch);
+
+    // A horse is inserted in the round after its parents from the batch, so their generated IDs are known.
+    // Every round is one batch statement; there are as many rounds as generations within the batch.
+    Horse[] created = new Horse[batch.size()];
+    Map<String, Long> idsByRef = new HashMap<>();
+    List<Integer> pending = IntStream.range(0, batch.size()).boxed().toList();
+    while (!pending.isEmpty()) {
+      List<Integer> round = new ArrayList<>();
+      List<Integer> waiting = new ArrayList<>();
+      for (int i : pending) {
+        HorseBatchEntryDto entry = batch.get(i);
+        boolean parentsCreated = (entry.motherRef() == null || idsByRef.containsKey(entry.motherRef()))
+            && (entry.fatherRef() == null || idsByRef.containsKey(entry.fatherRef()));
+        if (parentsCreated) {
+          round.add(i);
+        } else {
+          waiting.add(i);
+        }
+      }
+      if (round.isEmpty()) {
+        throw new FatalException("Parents referenced within the batch form a cycle");
+      }
+
+      List<Horse> horses = dao.createAll(round.stream()
+          .map(i -> withParentsOfBatch(batch.get(i), idsByRef))
+          .toList());
+      for (int k = 0; k < round.size(); k++) {
+        HorseBatchEntryDto entry = batch.get(round.get(k));
+        created[round.get(k)] = horses.get(k);
+        if (entry.ref() != null) {
+          idsByRef.put(entry.ref(), horses.get(k).getId());
+        }
+      }
+      pending = waiting;
+    }
+
+    Set<Long> ownerIds = Arrays.stream(created)
+        .map(Horse::getOwnerId)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toUnmodifiableSet());
+    Map<Long, OwnerDto> ownerMap;
+    try {
+      ownerMap = ownerService.getAllById(ownerIds);
+    } catch (NotFoundException e) {
+      throw new FatalException("Horse, that was just created, refers to non-existing owner", e);
+    }
+    return Arrays.stream(created)
+        .map(horse -> mapper.entityToListDto(horse, ownerMap))
+        .toList();
+  }
+
+  private HorseCreateDto withParentsOfBatch(HorseBatchEntryDto entry, Map<String, Long> idsByRef) {
+    HorseCreateDto horse = entry.horse();
+    ParentDto mother = entry.motherRef() == null
+        ? horse.mother()
+        : new ParentDto(idsByRef.get(entry.motherRef()), null);
+    ParentDto father = entry.fatherRef() == null
+        ? horse.father()
+        : new ParentDto(idsByRef.get(entry.fatherRef()), null);
+    return new HorseCreateDto(horse.name(), horse.description(), horse.dateOfBirth(), horse.sex(), horse.owner(), mother, father);
   }
 
   @Override
   public HorseDetailDto update(HorseDetailDto horse) throws NotFoundException, ValidationException, ConflictException {
     LOG.trace("update({})", horse);
-    validator.validateForUpdate(horse);
+    HorseValidationContext context = validator.validateForUpdate(horse);
     var updatedHorse = dao.update(horse);
-    return mapper.entityToDetailDto(
-        updatedHorse,
-        ownerMapForSingleId(updatedHorse.getOwnerId()),
-        parentMapForSingleId(updatedHorse.getMotherId()),
-        parentMapForSingleId(updatedHorse.getFatherId()));
+    return mapper.entityToDetailDto(updatedHorse, context);
   }
 
   @Override
   public HorseDetailDto getById(long id) throws NotFoundException {
     LOG.trace("details({})", id);
-    Horse horse = dao.getById(id);
-    return mapper.entityToDetailDto(
-            horse,
-            ownerMapForSingleId(horse.getOwnerId()),
-            parentMapForSingleId(horse.getMotherId()),
-            parentMapForSingleId(horse.getFatherId()));
+    return dao.getDetailById(id);
   }
 
   @Override
@@ -112,80 +188,86 @@ public class HorseServiceImpl implements HorseService {
   @Override
   public Stream<HorseListDto> searchHorses(HorseSearchDto horseSearchDto) {
     LOG.trace("searchParams({})", horseSearchDto);
-    var horses = dao.searchHorses(horseSearchDto);
-    var ownerIds = horses.stream()
-            .map(Horse::getOwnerId)
-            .filter(Objects::nonNull)
-            .collect(Collectors.toUnmodifiableSet());
-    Map<Long, OwnerDto> ownerMap;
-    try {
-      ownerMap = ownerService.getAllById(ownerIds);
-    } catch (NotFoundException e) {
-      throw new FatalException("Horse, that is already persisted, refers to non-existing owner", e);
-    }
-    return horses.stream()
-            .map(horse -> mapper.entityToListDto(horse, ownerMap));
+    return dao.searchHorsesWithOwner(horseSearchDto).stream();
+  }
+
+  @Override
+  public void streamHorses(HorseSearchDto horseSearchDto, Consumer<HorseListDto> consumer) {
+    LOG.trace("streamHorses({})", horseSearchDto);
+    dao.streamHorsesWithOwner(horseSearchDto, consumer);
+  }
+
+  @Override
+  public List<HorseListDto> searchHorsesByText(HorseTextSearchDto searchDto) {
+    LOG.trace("searchHorsesByText({})", searchDto);
+    int limit = searchDto.maxAmount() == null ? DEFAULT_TEXT_SEARCH_AMOUNT : searchDto.maxAmount();
+    List<HorseTextIndex.Match> matches = textIndex.search(searchDto.text(), limit);
+
+    // the index only ranks the IDs, the horses themselves are fetched by their primary key
+    Map<Long, HorseListDto> horses = dao.getListByIds(matches.stream().map(HorseTextIndex.Match::id).toList()).stream()
+        .collect(Collectors.toMap(HorseListDto::id, Function.identity()));
+    return matches.stream()
+        .map(match -> horses.get(match.id()))
+        .filter(Objects::nonNull)
+        .toList();
   }
 
   @Override
   public HorseFamilyTreeDto getFamilyTree(long id, int generation) throws NotFoundException {
     LOG.trace("getFamilyTree(id:{}, generation:{})", id, generation);
-    var horses = dao.getFamilyTree(id, generation);
-    return convertListToFamilyTreeDto(horses, id);
+    HorseFamilyTreeDto cached = familyTreeCache.get(id, generation);
+    if (cached != null) {
+      return cached;
+    }
+    long version = familyTreeCache.version();
+    var horses = pedigreeIndex.getFamilyTree(id, generation);
+    HorseFamilyTreeDto familyTree = convertListToFamilyTreeDto(horses, id);
+    familyTreeCache.put(id, generation, familyTree, horses.stream().map(Horse::getId).toList(), version);
+    return familyTree;
   }
 
-  private HorseFamilyTreeDto convertListToFamilyTreeDto(List<Horse> familyList, long id) throws NotFoundException {
-    LOG.trace("convertListToFamilyTreeDto({})", familyList);
-    List<Horse> horseList = familyList.stream().filter((horse) -> horse.getId() == id).collect(Collectors.toList());
-    if (horseList.isEmpty()) {
+  @Override
+  public HorseFamilyGraphDto getFamilyGraph(long id, int generation) throws NotFoundException {
+    LOG.trace("getFamilyGraph(id:{}, generation:{})", id, generation);
+    var horses = pedigreeIndex.getFamilyTree(id, generation);
+    HorseFamilyGraphDto familyGraph = mapper.entitiesToFamilyGraphDto(horses, id);
+    if (familyGraph == null) {
       throw new NotFoundException("No horse with ID %d found".formatted(id));
     }
-    Horse horse = horseList.get(0);
-    return buildFamilyTreeDto(horse, familyList);
-
+    return familyGraph;
   }
 
-  private HorseFamilyTreeDto buildFamilyTreeDto(Horse horse, List<Horse> familyList) {
-    LOG.trace("buildFamilyTreeDto(root:{})", horse);
-    if (horse != null) {
-      Horse mother = null;
-      Horse father = null;
+  @Override
+  public List<HorseDescendantDto> getDescendants(long id, int generations, Integer maxAmount)
+      throws ValidationException, NotFoundException {
+    LOG.trace("getDescendants(id:{}, generations:{}, maxAmount:{})", id, generations, maxAmount);
+    checkDescendants(id, generations, maxAmount);
+    List<HorseDescendantDto> descendants = new ArrayList<>();
+    streamDescendants(id, generations, maxAmount, descendants::add);
+    return descendants;
+  }
 
-      for (Horse h : familyList) {
-        if (h.getId().equals(horse.getMotherId())) {
-          mother = h;
-        }
-        if (h.getId().equals(horse.getFatherId())) {
-          father = h;
-        }
-      }
-      return new HorseFamilyTreeDto(horse.getId(), horse.getName(), horse.getDateOfBirth(), horse.getSex(),
-              buildFamilyTreeDto(mother, familyList), buildFamilyTreeDto(father, familyList));
-    } else {
-      return null;
-    }
+  @Override
+  public void checkDescendants(long id, int generations, Integer maxAmount) throws ValidationException, NotFoundException {
+    LOG.trace("checkDescendants(id:{}, generations:{}, maxAmount:{})", id, generations, maxAmount);
+    validator.validateForDescendants(generations, maxAmount);
+    // the existence of the ancestor is checked in memory, the query itself would just return no rows
+    pedigreeIndex.getById(id);
   }
 
-  private Map<Long, OwnerDto> ownerMapForSingleId(Long ownerId) {
-    LOG.trace("ownerMapForSingleId({})", ownerId);
-    try {
-      return ownerId == null
-          ? null
-          : Collections.singletonMap(ownerId, ownerService.getById(ownerId));
-    } catch (NotFoundException e) {
-      throw new FatalException("Owner %d referenced by horse not found".formatted(ownerId));
-    }
+  @Override
+  public void streamDescendants(long id, int generations, Integer maxAmount, Consumer<HorseDescendantDto> consumer) {
+    LOG.trace("streamDescendants(id:{}, generations:{}, maxAmount:{})", id, generations, maxAmount);
+    dao.streamDescendants(id, generations, maxAmount, consumer);
   }
 
-  private Map<Long, ParentDto> parentMapForSingleId(Long parentId) {
-    LOG.trace("parentMapForSingleId({})", parentId);
-    try {
-      return parentId == null
-              ? null
-              : Collections.singletonMap(parentId, getParentById(parentId));
-    } catch (NotFoundException e) {
-      throw new FatalException("Parent %d referenced by horse not found".formatted(parentId));
+  private HorseFamilyTreeDto convertListToFamilyTreeDto(List<Horse> familyList, long id) throws NotFoundException {
+    LOG.trace("convertListToFamilyTreeDto({})", familyList);
+    HorseFamilyTreeDto familyTree = mapper.entitiesToFamilyTreeDto(familyList, id);
+    if (familyTree == null) {
+      throw new NotFoundException("No horse with ID %d found".formatted(id));
     }
+    return familyTree;
   }
 
 }
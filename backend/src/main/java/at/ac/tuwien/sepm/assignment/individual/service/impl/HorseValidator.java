@@ -1,17 +1,25 @@
 package at.ac.tuwien.sepm.assignment.individual.service.impl;
 
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseBatchEntryDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseCreateDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseDetailDto;
 import at.ac.tuwien.sepm.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepm.assignment.individual.entity.HorseValidationContext;
 import at.ac.tuwien.sepm.assignment.individual.exception.ConflictException;
 import at.ac.tuwien.sepm.assignment.individual.exception.NotFoundException;
 import at.ac.tuwien.sepm.assignment.individual.exception.ValidationException;
 import java.lang.invoke.MethodHandles;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import at.ac.tuwien.sepm.assignment.individual.persistence.HorseDao;
+import at.ac.tuwien.sepm.assignment.individual.persistence.PedigreeIndex;
 import at.ac.tuwien.sepm.assignment.individual.service.OwnerService;
 import at.ac.tuwien.sepm.assignment.individual.type.Sex;
 import org.slf4j.Logger;
@@ -23,14 +31,26 @@ public class HorseValidator {
   private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
   private final HorseDao horseDao;
   private final OwnerService ownerService;
+  private final PedigreeIndex pedigreeIndex;
 
-  public HorseValidator(HorseDao dao, OwnerService ownerService) {
+  public HorseValidator(HorseDao dao, OwnerService ownerService, PedigreeIndex pedigreeIndex) {
     this.horseDao = dao;
     this.ownerService = ownerService;
+    this.pedigreeIndex = pedigreeIndex;
   }
 
 
-  public void validateForUpdate(HorseDetailDto horse) throws ValidationException, ConflictException, NotFoundException {
+  /**
+   * Validate a horse to update.
+   * Everything stored, that the checks need, is read with one query, the checks themselves run in memory.
+   *
+   * @param horse the horse to update
+   * @return the stored context of the horse, containing its referenced owner and parents
+   * @throws ValidationException if the horse is in itself invalid
+   * @throws ConflictException if the horse does not fit its owner, its parents or its children, or would become its own ancestor
+   * @throws NotFoundException if the horse to update does not exist
+   */
+  public HorseValidationContext validateForUpdate(HorseDetailDto horse) throws ValidationException, ConflictException, NotFoundException {
     LOG.trace("validateForUpdate({})", horse);
     List<String> validationErrors = new ArrayList<>();
 
@@ -46,27 +66,41 @@ public class HorseValidator {
       throw new ValidationException("Validation of horse for update failed", validationErrors);
     }
 
+    HorseValidationContext context = horseDao.getValidationContext(horse.id(), horse.ownerId(), horse.motherId(), horse.fatherId());
+    if (context.horse() == null) {
+      throw new NotFoundException("Could not update horse with ID " + horse.id() + ", because it does not exist");
+    }
+
     List<String> conflictErrors = new ArrayList<>();
-    if (horse.id() == horse.motherId()) {
+    if (horse.id().equals(horse.motherId())) {
       conflictErrors.add("Horse cannot be its own mother");
     }
-    if (horse.id() == horse.fatherId()) {
+    if (horse.id().equals(horse.fatherId())) {
       conflictErrors.add("Horse cannot be its own father");
     }
 
-    checkOwner(conflictErrors, horse.ownerId());
-    checkMother(conflictErrors, horse.dateOfBirth(), horse.motherId());
-    checkFather(conflictErrors, horse.dateOfBirth(), horse.fatherId());
-    checkOverallState(conflictErrors, horse);
+    checkReferences(conflictErrors, context, horse.dateOfBirth(), horse.ownerId(), horse.motherId(), horse.fatherId());
+    checkOverallState(conflictErrors, context, horse);
+    checkDescendantParents(conflictErrors, horse);
 
 
     if (!conflictErrors.isEmpty()) {
       LOG.warn("There are conflicts caused by the horse to update", conflictErrors);
       throw new ConflictException("There are conflicts in the updated horse", conflictErrors);
     }
+    return context;
   }
 
-  public void validateForCreate(HorseCreateDto horse) throws ValidationException, ConflictException {
+  /**
+   * Validate a horse to create.
+   * Everything stored, that the checks need, is read with one query, the checks themselves run in memory.
+   *
+   * @param horse the horse to create
+   * @return the stored context of the horse, containing its referenced owner and parents
+   * @throws ValidationException if the horse is in itself invalid
+   * @throws ConflictException if the owner or a parent does not exist, or a parent does not fit the horse
+   */
+  public HorseValidationContext validateForCreate(HorseCreateDto horse) throws ValidationException, ConflictException {
     LOG.trace("validateForCreate({})", horse);
     List<String> validationErrors = new ArrayList<>();
 
@@ -78,16 +112,139 @@ public class HorseValidator {
       throw new ValidationException("Validation of horse for create failed", validationErrors);
     }
 
+    HorseValidationContext context = horseDao.getValidationContext(null, horse.ownerId(), horse.motherId(), horse.fatherId());
     List<String> conflictErrors = new ArrayList<>();
-    checkOwner(conflictErrors, horse.ownerId());
-    checkMother(conflictErrors, horse.dateOfBirth(), horse.motherId());
-    checkFather(conflictErrors, horse.dateOfBirth(), horse.fatherId());
+    checkReferences(conflictErrors, context, horse.dateOfBirth(), horse.ownerId(), horse.motherId(), horse.fatherId());
 
 
     if (!conflictErrors.isEmpty()) {
       LOG.warn("There are conflicts caused by the horse to create", conflictErrors);
       throw new ConflictException("There are conflicts in the created horse", conflictErrors);
     }
+    return context;
+  }
+
+  /**
+   * Validate a batch of horses to create as a whole.
+   * The owners of all horses are looked up with one query, persisted parents are looked up in the {@link PedigreeIndex}.
+   * Parents, that are referenced within the batch, have to be part of the batch.
+   * As every parent has to be older than its child, the references within a valid batch cannot form a cycle.
+   *
+   * @param batch the horses to create
+   * @throws ValidationException if a horse of the batch is invalid, or refers to a parent that is not part of the batch
+   * @throws ConflictException if an owner or parent does not exist, or a parent does not fit its child
+   */
+  public void validateForBatchCreate(List<HorseBatchEntryDto> batch) throws ValidationException, ConflictException {
+    LOG.trace("validateForBatchCreate({} horses)", batch == null ? null : batch.size());
+    List<String> validationErrors = new ArrayList<>();
+
+    if (batch == null || batch.isEmpty()) {
+      validationErrors.add("Batch of horses cannot be empty");
+      throw new ValidationException("Validation of horses for batch create failed", validationErrors);
+    }
+
+    Map<String, HorseCreateDto> horsesByRef = new HashMap<>();
+    for (int i = 0; i < batch.size(); i++) {
+      HorseBatchEntryDto entry = batch.get(i);
+      List<String> entryErrors = new ArrayList<>();
+      if (entry == null) {
+        entryErrors.add("Entry cannot be null");
+      } else if (entry.horse() == null) {
+        entryErrors.add("Horse cannot be null");
+      } else {
+        validateAll(entryErrors, entry.horse().name(), entry.horse().description(), entry.horse().dateOfBirth(),
+                entry.horse().sex());
+        if (entry.ref() != null && horsesByRef.putIfAbsent(entry.ref(), entry.horse()) != null) {
+          entryErrors.add("Reference %s is used by more than one horse".formatted(entry.ref()));
+        }
+        if (entry.motherRef() != null && entry.horse().motherId() != null) {
+          entryErrors.add("Mother is given both by ID and by reference");
+        }
+        if (entry.fatherRef() != null && entry.horse().fatherId() != null) {
+          entryErrors.add("Father is given both by ID and by reference");
+        }
+      }
+      addForEntry(validationErrors, i, entryErrors);
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      HorseBatchEntryDto entry = batch.get(i);
+      if (entry == null) {
+        continue;
+      }
+      List<String> entryErrors = new ArrayList<>();
+      if (entry.motherRef() != null && !horsesByRef.containsKey(entry.motherRef())) {
+        entryErrors.add("Referenced mother %s is not part of the batch".formatted(entry.motherRef()));
+      }
+      if (entry.fatherRef() != null && !horsesByRef.containsKey(entry.fatherRef())) {
+        entryErrors.add("Referenced father %s is not part of the batch".formatted(entry.fatherRef()));
+      }
+      addForEntry(validationErrors, i, entryErrors);
+    }
+
+    if (!validationErrors.isEmpty()) {
+      LOG.warn("The validation of the horses to create has failed", validationErrors);
+      throw new ValidationException("Validation of horses for batch create failed", validationErrors);
+    }
+
+    List<String> conflictErrors = new ArrayList<>();
+    Set<Long> ownerIds = batch.stream()
+        .filter(Objects::nonNull)
+        .map(entry -> entry.horse().ownerId())
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet());
+    try {
+      ownerService.getAllById(ownerIds);
+    } catch (NotFoundException e) {
+      conflictErrors.add(e.getMessage());
+    }
+
+    for (int i = 0; i < batch.size(); i++) {
+      HorseBatchEntryDto entry = batch.get(i);
+      if (entry == null) {
+        continue;
+      }
+      HorseCreateDto horse = entry.horse();
+      List<String> entryConflicts = new ArrayList<>();
+      checkMother(entryConflicts, horse.dateOfBirth(), horse.motherId());
+      checkFather(entryConflicts, horse.dateOfBirth(), horse.fatherId());
+      if (entry.motherRef() != null) {
+        HorseCreateDto mother = horsesByRef.get(entry.motherRef());
+        checkMotherData(entryConflicts, horse.dateOfBirth(), mother.sex(), mother.dateOfBirth());
+      }
+      if (entry.fatherRef() != null) {
+        HorseCreateDto father = horsesByRef.get(entry.fatherRef());
+        checkFatherData(entryConflicts, horse.dateOfBirth(), father.sex(), father.dateOfBirth());
+      }
+      addForEntry(conflictErrors, i, entryConflicts);
+    }
+
+    if (!conflictErrors.isEmpty()) {
+      LOG.warn("There are conflicts caused by the horses to create", conflictErrors);
+      throw new ConflictException("There are conflicts in the created horses", conflictErrors);
+    }
+  }
+
+  public void validateForDescendants(int generations, Integer maxAmount) throws ValidationException {
+    LOG.trace("validateForDescendants(generations:{}, maxAmount:{})", generations, maxAmount);
+    List<String> validationErrors = new ArrayList<>();
+
+    if (generations < 1) {
+      validationErrors.add("Number of generations must be positive");
+    }
+    if (maxAmount != null && maxAmount < 1) {
+      validationErrors.add("Maximum amount of descendants must be positive");
+    }
+
+    if (!validationErrors.isEmpty()) {
+      LOG.warn("The validation of the descendants request has failed", validationErrors);
+      throw new ValidationException("Validation of descendants request failed", validationErrors);
+    }
+  }
+
+  private void addForEntry(List<String> errors, int index, List<String> entryErrors) {
+    for (String error : entryErrors) {
+      errors.add("Horse %d: %s".formatted(index, error));
+    }
   }
 
   private void validateAll(List<String> validationErrors, String name, String description,
@@ -98,12 +255,10 @@ public class HorseValidator {
     validateSex(validationErrors, sex);
   }
 
-  private void checkOverallState(List<String> conflictErrors, HorseDetailDto horse) throws NotFoundException {
+  private void checkOverallState(List<String> conflictErrors, HorseValidationContext context, HorseDetailDto horse) {
     LOG.trace("checkOverallState({})", horse);
-    List<Horse> children = horseDao.getChildren(horse.id());
-
-    if (!children.isEmpty()) {
-      Horse horseBeforeChange = horseDao.getById(horse.id());
+    if (context.hasChildren()) {
+      Horse horseBeforeChange = context.horse();
 
       if (!horseBeforeChange.getSex().equals(horse.sex())) {
         conflictErrors.add("The sex of the horse cannot be changed, as it has children");
@@ -114,13 +269,37 @@ public class HorseValidator {
     }
   }
 
-  private void checkOwner(List<String> conflictErrors, Long ownerId) {
-    LOG.trace("checkOwner({})", ownerId);
-    if (ownerId != null) {
-      try {
-        ownerService.getById(ownerId);
-      } catch (NotFoundException e) {
-        conflictErrors.add("The given owner does not exist");
+  private void checkDescendantParents(List<String> conflictErrors, HorseDetailDto horse) {
+    LOG.trace("checkDescendantParents({})", horse);
+    // a descendant as parent would make the horse its own ancestor
+    if (horse.motherId() != null && !horse.id().equals(horse.motherId()) && pedigreeIndex.isAncestor(horse.id(), horse.motherId())) {
+      conflictErrors.add("The given mother is a descendant of the horse");
+    }
+    if (horse.fatherId() != null && !horse.id().equals(horse.fatherId()) && pedigreeIndex.isAncestor(horse.id(), horse.fatherId())) {
+      conflictErrors.add("The given father is a descendant of the horse");
+    }
+  }
+
+  private void checkReferences(List<String> conflictErrors, HorseValidationContext context, LocalDate dateOfBirth,
+                               Long ownerId, Long motherId, Long fatherId) {
+    LOG.trace("checkReferences(owner:{}, mother:{}, father:{})", ownerId, motherId, fatherId);
+    if (ownerId != null && context.owner() == null) {
+      conflictErrors.add("The given owner does not exist");
+    }
+    if (motherId != null) {
+      Horse mother = context.mother();
+      if (mother == null) {
+        conflictErrors.add("The given mother does not exist");
+      } else {
+        checkMotherData(conflictErrors, dateOfBirth, mother.getSex(), mother.getDateOfBirth());
+      }
+    }
+    if (fatherId != null) {
+      Horse father = context.father();
+      if (father == null) {
+        conflictErrors.add("The given father does not exist");
+      } else {
+        checkFatherData(conflictErrors, dateOfBirth, father.getSex(), father.getDateOfBirth());
       }
     }
   }
@@ -130,18 +309,21 @@ public class HorseValidator {
     Horse mother = null;
     if (motherId != null) {
       try {
-        mother = horseDao.getParentById(motherId);
+        mother = pedigreeIndex.getById(motherId);
       } catch (NotFoundException e) {
         conflictErrors.add("The given mother does not exist");
         return;
       }
+      checkMotherData(conflictErrors, childDateOfBirth, mother.getSex(), mother.getDateOfBirth());
+    }
+  }
 
-      if (!mother.getSex().equals(Sex.FEMALE)) {
-        conflictErrors.add("Gender of the mother is not Female!");
-      }
-      if (!isParentsDateOfBirthValid(childDateOfBirth, mother.getDateOfBirth())) {
-        conflictErrors.add("The child cannot be older than the mother");
-      }
+  private void checkMotherData(List<String> conflictErrors, LocalDate childDateOfBirth, Sex sex, LocalDate dateOfBirth) {
+    if (!sex.equals(Sex.FEMALE)) {
+      conflictErrors.add("Gender of the mother is not Female!");
+    }
+    if (!isParentsDateOfBirthValid(childDateOfBirth, dateOfBirth)) {
+      conflictErrors.add("The child cannot be older than the mother");
     }
   }
 
@@ -150,18 +332,21 @@ public class HorseValidator {
     Horse father = null;
     if (fatherId != null) {
       try {
-        father = horseDao.getParentById(fatherId);
+        father = pedigreeIndex.getById(fatherId);
       } catch (NotFoundException e) {
         conflictErrors.add("The given father does not exist");
         return;
       }
+      checkFatherData(conflictErrors, childDateOfBirth, father.getSex(), father.getDateOfBirth());
+    }
+  }
 
-      if (!father.getSex().equals(Sex.MALE)) {
-        conflictErrors.add("Gender of the father is not Male!");
-      }
-      if (!isParentsDateOfBirthValid(childDateOfBirth, father.getDateOfBirth())) {
-        conflictErrors.add("The child cannot be older than the father");
-      }
+  private void checkFatherData(List<String> conflictErrors, LocalDate childDateOfBirth, Sex sex, LocalDate dateOfBirth) {
+    if (!sex.equals(Sex.MALE)) {
+      conflictErrors.add("Gender of the father is not Male!");
+    }
+    if (!isParentsDateOfBirthValid(childDateOfBirth, dateOfBirth)) {
+      conflictErrors.add("The child cannot be older than the father");
     }
   }
 
@@ -0,0 +1,15 @@
+package at.ac.tuwien.sepm.assignment.individual.type;
+
+/**
+ * How a search text is matched against a name.
+ */
+public enum MatchMode {
+  /**
+   * The name contains the search text anywhere.
+   */
+  SUBSTRING,
+  /**
+   * The name starts with the search text. Can be answered through an index on the name.
+   */
+  PREFIX
+}
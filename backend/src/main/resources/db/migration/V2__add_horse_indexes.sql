@@ -0,0 +1,5 @@
+-- Indexes for the search filters and the sort order (name, id) of the horse search.
+-- The owner and parent columns need no index of their own,
+-- as H2 already creates an index for every foreign key.
+CREATE INDEX IF NOT EXISTS horse_name_idx ON horse (name, id);
+CREATE INDEX IF NOT EXISTS horse_date_of_birth_idx ON horse (date_of_birth);
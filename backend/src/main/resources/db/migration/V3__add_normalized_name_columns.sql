@@ -0,0 +1,11 @@
+-- Upper-cased copies of the columns, that are compared ignoring case.
+-- Filtering on UPPER(column) can not use an index on the column itself, filtering on the copy can use the copy's index.
+-- The copies are generated columns, so the database keeps them up to date on every insert and update.
+ALTER TABLE owner ADD COLUMN IF NOT EXISTS email_norm VARCHAR(255) GENERATED ALWAYS AS (UPPER(email));
+ALTER TABLE owner ADD COLUMN IF NOT EXISTS name_norm VARCHAR(511) GENERATED ALWAYS AS (UPPER(first_name || ' ' || last_name));
+ALTER TABLE horse ADD COLUMN IF NOT EXISTS name_norm VARCHAR(255) GENERATED ALWAYS AS (UPPER(name));
+
+-- emails are unique ignoring case, owners without email are not affected
+CREATE UNIQUE INDEX IF NOT EXISTS owner_email_norm_idx ON owner (email_norm);
+CREATE INDEX IF NOT EXISTS owner_name_norm_idx ON owner (name_norm, id);
+CREATE INDEX IF NOT EXISTS horse_name_norm_idx ON horse (name_norm);
@@ -0,0 +1,71 @@
+package at.ac.tuwien.sepm.assignment.individual;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Counts the JDBC statements, that are created on the data source of the application context.
+ * Import this class into a test ({@code @Import(StatementCounter.class)}) to wrap the data source.
+ */
+public class StatementCounter implements BeanPostProcessor {
+  private static final Set<String> STATEMENT_FACTORY_METHODS = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+  private final AtomicInteger count = new AtomicInteger();
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof DataSource dataSource) {
+      return new DelegatingDataSource(dataSource) {
+        @Override
+        public Connection getConnection() throws SQLException {
+          return countingConnection(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+          return countingConnection(super.getConnection(username, password));
+        }
+      };
+    }
+    return bean;
+  }
+
+  /**
+   * Reset the count of statements to zero.
+   */
+  public void reset() {
+    count.set(0);
+  }
+
+  /**
+   * Get the number of statements created since the last {@link #reset()}.
+   *
+   * @return the number of statements
+   */
+  public int count() {
+    return count.get();
+  }
+
+  private Connection countingConnection(Connection connection) {
+    return (Connection) Proxy.newProxyInstance(
+        Connection.class.getClassLoader(),
+        new Class<?>[] {Connection.class},
+        (proxy, method, args) -> {
+          if (STATEMENT_FACTORY_METHODS.contains(method.getName())) {
+            count.incrementAndGet();
+          }
+          try {
+            return method.invoke(connection, args);
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+        });
+  }
+}
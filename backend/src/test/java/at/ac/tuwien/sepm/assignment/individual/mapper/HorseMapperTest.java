@@ -0,0 +1,87 @@
+package at.ac.tuwien.sepm.assignment.individual.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseFamilyTreeDto;
+import at.ac.tuwien.sepm.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepm.assignment.individual.type.Sex;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class HorseMapperTest {
+
+  private final HorseMapper horseMapper = new HorseMapper();
+
+  @Test
+  public void familyTreeOfManyGenerationsIsAssembled() {
+    // given a line of 10000 generations, every horse being the mother of the previous one
+    int generations = 10_000;
+    List<Horse> family = new ArrayList<>();
+    for (long id = 1; id <= generations; id++) {
+      family.add(horse(id, Sex.FEMALE, id < generations ? id + 1 : null, null));
+    }
+
+    // when
+    HorseFamilyTreeDto familyTree = horseMapper.entitiesToFamilyTreeDto(family, 1L);
+
+    // then
+    int depth = 0;
+    HorseFamilyTreeDto oldest = null;
+    for (HorseFamilyTreeDto node = familyTree; node != null; node = node.mother()) {
+      oldest = node;
+      depth++;
+    }
+    assertThat(depth).isEqualTo(generations);
+    assertThat(oldest.id()).isEqualTo(generations);
+  }
+
+  @Test
+  public void sharedAncestorIsAssembledOnce() {
+    // given a horse whose parents have the same father
+    List<Horse> family = List.of(
+            horse(1L, Sex.MALE, 2L, 3L),
+            horse(2L, Sex.FEMALE, null, 4L),
+            horse(3L, Sex.MALE, null, 4L),
+            horse(4L, Sex.MALE, null, null));
+
+    // when
+    HorseFamilyTreeDto familyTree = horseMapper.entitiesToFamilyTreeDto(family, 1L);
+
+    // then
+    assertAll(
+            () -> assertThat(familyTree.mother().father().id()).isEqualTo(4L),
+            () -> assertThat(familyTree.mother().father()).isSameAs(familyTree.father().father())
+    );
+  }
+
+  @Test
+  public void parentsMissingInFamilyAndCyclesAreLeftOut() {
+    // given a horse whose father is not in the list, and whose mother is its own grandmother
+    List<Horse> family = List.of(
+            horse(1L, Sex.MALE, 2L, 99L),
+            horse(2L, Sex.FEMALE, 2L, null));
+
+    // when
+    HorseFamilyTreeDto familyTree = horseMapper.entitiesToFamilyTreeDto(family, 1L);
+
+    // then
+    assertAll(
+            () -> assertThat(familyTree.father()).isNull(),
+            () -> assertThat(familyTree.mother().id()).isEqualTo(2L),
+            () -> assertThat(familyTree.mother().mother()).isNull(),
+            () -> assertThat(horseMapper.entitiesToFamilyTreeDto(family, 3L)).isNull()
+    );
+  }
+
+  private static Horse horse(Long id, Sex sex, Long motherId, Long fatherId) {
+    return new Horse()
+            .setId(id)
+            .setName("Horse " + id)
+            .setDateOfBirth(LocalDate.parse("2010-10-10"))
+            .setSex(sex)
+            .setMotherId(motherId)
+            .setFatherId(fatherId);
+  }
+}
@@ -18,6 +18,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ActiveProfiles({"test", "datagen"}) // enable "test" spring profile during test execution in order to pick up configuration from application-test.yml
 @SpringBootTest
@@ -29,6 +30,12 @@ public class HorseDaoTest {
   @Autowired
   DataGeneratorBean dataGeneratorBean;
 
+  @Autowired
+  PedigreeIndex pedigreeIndex;
+
+  @Autowired
+  TransactionTemplate transactionTemplate;
+
   @BeforeEach
   public void setup() throws SQLException {
     dataGeneratorBean.deleteData();
@@ -114,18 +121,57 @@ public class HorseDaoTest {
     );
   }
 
+  @Test
+  public void rolledBackChangesDoNotShowUpInTheIndex() throws Exception {
+    // given the current state of db
+    // when
+    Horse created = transactionTemplate.execute(status -> {
+      status.setRollbackOnly();
+      return horseDao.create(new HorseCreateDto("Horse", "Dao Test Rollback",
+              LocalDate.parse("2000-02-03"), Sex.MALE, null, null, null));
+    });
+    transactionTemplate.executeWithoutResult(status -> {
+      status.setRollbackOnly();
+      try {
+        horseDao.deleteById(-1L);
+      } catch (NotFoundException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    // then
+    assertThrows(NotFoundException.class, () -> pedigreeIndex.getById(created.getId()));
+    assertThat(pedigreeIndex.getById(-1L).getName()).isEqualTo("Wendy");
+  }
+
   @Test
   public void shouldSuccessfullySearchHorses() {
     // given the current state of db
     // when
     HorseSearchDto horseSearchDto = new HorseSearchDto(null, null, LocalDate.parse("2017-01-01"),
-            Sex.FEMALE, null, 10);
+            Sex.FEMALE, null, 10, null, null);
 
     // then
     List<Horse> horses = horseDao.searchHorses(horseSearchDto);
     assertThat(horses.size()).isEqualTo(3);
   }
 
+  @Test
+  public void familyTreeStopsAtRequestedGeneration() throws Exception {
+    // given the current state of db
+    // when
+    List<Horse> twoGenerations = horseDao.getFamilyTree(-5, 2);
+    List<Horse> threeGenerations = horseDao.getFamilyTree(-5, 3);
+
+    // then
+    assertThat(twoGenerations)
+            .extracting(Horse::getId)
+            .containsExactlyInAnyOrder(-5L, -4L, -3L);
+    assertThat(threeGenerations)
+            .extracting(Horse::getId)
+            .containsExactlyInAnyOrder(-5L, -4L, -3L, -1L, -2L);
+  }
+
   @Test
   public void shouldThrowExceptionWhenUpdatingNonExistingHorse() {
     // given the current state of db
@@ -137,4 +183,37 @@ public class HorseDaoTest {
     NotFoundException thrown = assertThrows(NotFoundException.class, () -> horseDao.update(horse));
     assertThat(thrown.getMessage()).contains("Could not update horse with ID -999, because it does not exist");
   }
+
+  @Test
+  public void searchCombinesFiltersWithoutName() {
+    // given the current state of db
+    // when
+    List<Horse> fathers = horseDao.searchHorses(
+            new HorseSearchDto(null, "father", null, Sex.MALE, null, null, null, null));
+    List<Horse> olderFathers = horseDao.searchHorses(
+            new HorseSearchDto(null, "father", LocalDate.parse("2012-01-01"), Sex.MALE, null, 1, null, null));
+
+    // then
+    assertThat(fathers).extracting(Horse::getName).containsExactly("Baba", "Mendy");
+    assertThat(olderFathers).extracting(Horse::getName).containsExactly("Baba");
+  }
+
+  @Test
+  public void searchMatchesWildcardsInDescriptionLiterally() {
+    // given
+    horseDao.create(new HorseCreateDto("Percent", "Won 100% of_races",
+            LocalDate.parse("2000-02-03"), Sex.MALE, null, null, null));
+    horseDao.create(new HorseCreateDto("Digits", "Won 1000 of races",
+            LocalDate.parse("2000-02-03"), Sex.MALE, null, null, null));
+
+    // when
+    List<Horse> percent = horseDao.searchHorses(
+            new HorseSearchDto(null, "100%", null, null, null, null, null, null));
+    List<Horse> underscore = horseDao.searchHorses(
+            new HorseSearchDto(null, "OF_RACES", null, null, null, null, null, null));
+
+    // then
+    assertThat(percent).extracting(Horse::getName).containsExactly("Percent");
+    assertThat(underscore).extracting(Horse::getName).containsExactly("Percent");
+  }
 }
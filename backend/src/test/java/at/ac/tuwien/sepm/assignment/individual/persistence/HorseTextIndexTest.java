@@ -0,0 +1,100 @@
+package at.ac.tuwien.sepm.assignment.individual.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import at.ac.tuwien.sepm.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepm.assignment.individual.type.Sex;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class HorseTextIndexTest {
+
+  private HorseTextIndex textIndex;
+
+  @BeforeEach
+  public void setup() {
+    textIndex = new HorseTextIndex();
+    textIndex.rebuild(List.of(
+            horse(-1L, "Wendy", "Grand Mother"),
+            horse(-2L, "Baba", "Grand Father"),
+            horse(-3L, "Mendy", "Father"),
+            horse(-4L, "Bella", "Mother"),
+            horse(-5L, "Grand Star", null)));
+  }
+
+  @Test
+  public void matchInNameRanksBeforeMatchInDescription() {
+    // given the horses of setup
+    // when
+    List<HorseTextIndex.Match> matches = textIndex.search("grand", 10);
+
+    // then
+    assertThat(matches)
+            .extracting(HorseTextIndex.Match::id)
+            .containsExactly(-5L, -2L, -1L);
+  }
+
+  @Test
+  public void horseMatchingMoreWordsRanksFirst() {
+    // given the horses of setup
+    // when
+    List<HorseTextIndex.Match> matches = textIndex.search("GRAND mother", 10);
+
+    // then
+    assertThat(matches)
+            .extracting(HorseTextIndex.Match::id)
+            .startsWith(-1L)
+            .containsExactlyInAnyOrder(-1L, -2L, -4L, -5L);
+  }
+
+  @Test
+  public void prefixMatchesWordsItStarts() {
+    // given the horses of setup
+    // when
+    List<HorseTextIndex.Match> matches = textIndex.search("fat", 10);
+
+    // then
+    assertThat(matches)
+            .extracting(HorseTextIndex.Match::id)
+            .containsExactlyInAnyOrder(-2L, -3L);
+  }
+
+  @Test
+  public void searchReturnsAtMostLimitMatches() {
+    // given the horses of setup
+    // when
+    List<HorseTextIndex.Match> matches = textIndex.search("grand", 1);
+
+    // then
+    assertThat(matches)
+            .extracting(HorseTextIndex.Match::id)
+            .containsExactly(-5L);
+  }
+
+  @Test
+  public void updatedAndRemovedHorsesAreFoundByTheirNewTexts() {
+    // given
+    textIndex.put(horse(-3L, "Mendy", "Champion"));
+    textIndex.remove(-2L);
+
+    // when
+    List<HorseTextIndex.Match> fathers = textIndex.search("father", 10);
+    List<HorseTextIndex.Match> champions = textIndex.search("champion", 10);
+
+    // then
+    assertThat(fathers).isEmpty();
+    assertThat(champions)
+            .extracting(HorseTextIndex.Match::id)
+            .containsExactly(-3L);
+  }
+
+  private static Horse horse(long id, String name, String description) {
+    return new Horse()
+            .setId(id)
+            .setName(name)
+            .setDescription(description)
+            .setDateOfBirth(LocalDate.of(2000, 1, 1))
+            .setSex(Sex.MALE);
+  }
+}
@@ -0,0 +1,71 @@
+package at.ac.tuwien.sepm.assignment.individual.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import at.ac.tuwien.sepm.assignment.individual.entity.Owner;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+public class OwnerCacheTest {
+
+  @Test
+  public void leastRecentlyUsedOwnerIsEvictedWhenFull() {
+    // given
+    OwnerCache cache = new OwnerCache(2);
+    cache.put(owner(-1L));
+    cache.put(owner(-2L));
+    cache.get(-1L);
+
+    // when
+    cache.put(owner(-3L));
+
+    // then
+    assertThat(cache.get(-1L)).isNotNull();
+    assertThat(cache.get(-2L)).isNull();
+    assertThat(cache.get(-3L)).isNotNull();
+    assertThat(cache.stats()).isEqualTo(new OwnerCache.Stats(3, 1, 1, 2));
+  }
+
+  @Test
+  public void invalidatedOwnerIsNoLongerCached() {
+    // given
+    OwnerCache cache = new OwnerCache(10);
+    cache.put(owner(-1L));
+    cache.put(owner(-2L));
+
+    // when
+    cache.invalidate(-1L);
+
+    // then
+    assertThat(cache.get(-1L)).isNull();
+    assertThat(cache.get(-2L)).isNotNull();
+    assertThat(cache.stats()).isEqualTo(new OwnerCache.Stats(1, 1, 0, 1));
+  }
+
+  @Test
+  public void publishedMetricsFollowTheCounters() {
+    // given
+    OwnerCache cache = new OwnerCache(1);
+    MeterRegistry registry = new SimpleMeterRegistry();
+    cache.bindTo(registry);
+
+    // when
+    cache.put(owner(-1L));
+    cache.get(-1L);
+    cache.put(owner(-2L));
+    cache.get(-1L);
+
+    // then
+    assertThat(registry.get("cache.gets").tags("cache", "owners", "result", "hit").functionCounter().count()).isEqualTo(1);
+    assertThat(registry.get("cache.gets").tags("cache", "owners", "result", "miss").functionCounter().count()).isEqualTo(1);
+    assertThat(registry.get("cache.evictions").tags("cache", "owners").functionCounter().count()).isEqualTo(1);
+    assertThat(registry.get("cache.size").tags("cache", "owners").gauge().value()).isEqualTo(1);
+  }
+
+  private static Owner owner(long id) {
+    return new Owner()
+            .setId(id)
+            .setFirstName("Owner")
+            .setLastName("Test");
+  }
+}
@@ -1,8 +1,11 @@
 package at.ac.tuwien.sepm.assignment.individual.persistence;
 
 import at.ac.tuwien.sepm.assignment.individual.dto.OwnerCreateDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.OwnerSearchDto;
 import at.ac.tuwien.sepm.assignment.individual.entity.Owner;
+import at.ac.tuwien.sepm.assignment.individual.exception.ConflictException;
 import at.ac.tuwien.sepm.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepm.assignment.individual.type.MatchMode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +13,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
 
@@ -30,7 +34,7 @@ public class OwnerDaoTest {
   }
 
   @Test
-  public void shouldSuccessfullyCreateOwner() {
+  public void shouldSuccessfullyCreateOwner() throws ConflictException {
     // given the current state of db
     // when
     Owner owner = ownerDao.create(
@@ -60,4 +64,34 @@ public class OwnerDaoTest {
             () -> assertThat(owner.getEmail()).isEqualTo("pep@si.com")
     );
   }
+
+  @Test
+  public void searchFindsCreatedOwnerBySubstringOfFullName() throws ConflictException {
+    // given
+    Owner created = ownerDao.create(new OwnerCreateDto("Search", "Target", null));
+
+    // when
+    Collection<Owner> owners = ownerDao.search(new OwnerSearchDto("rch tar", 5, null));
+
+    // then
+    assertThat(owners)
+            .extracting(Owner::getId)
+            .containsExactly(created.getId());
+  }
+
+  @Test
+  public void searchByPrefixFindsOwnersWhoseNameStartsWithItSortedByName() throws ConflictException {
+    // given
+    Owner second = ownerDao.create(new OwnerCreateDto("Prefix", "Second", null));
+    Owner first = ownerDao.create(new OwnerCreateDto("Prefix", "First", null));
+    ownerDao.create(new OwnerCreateDto("No", "Prefix", null));
+
+    // when
+    Collection<Owner> owners = ownerDao.search(new OwnerSearchDto("prefix", 5, MatchMode.PREFIX));
+
+    // then
+    assertThat(owners)
+            .extracting(Owner::getId)
+            .containsExactly(first.getId(), second.getId());
+  }
 }
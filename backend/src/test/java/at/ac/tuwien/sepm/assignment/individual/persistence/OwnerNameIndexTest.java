@@ -0,0 +1,87 @@
+package at.ac.tuwien.sepm.assignment.individual.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import at.ac.tuwien.sepm.assignment.individual.entity.Owner;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class OwnerNameIndexTest {
+
+  private OwnerNameIndex nameIndex;
+
+  @BeforeEach
+  public void setup() {
+    nameIndex = new OwnerNameIndex();
+    nameIndex.rebuild(List.of(
+            owner(-3L, "Third", "Owner"),
+            owner(-1L, "Uncle", "Bob"),
+            owner(-4L, "Owner", "Test"),
+            owner(-2L, "Abcab", "Xabc")));
+  }
+
+  @Test
+  public void substringMatchesIgnoringCaseAcrossFirstAndLastName() {
+    // given the owners of setup
+    // when
+    List<Long> owners = nameIndex.search("d ow", null);
+    List<Long> uncles = nameIndex.search("LE B", null);
+
+    // then
+    assertThat(owners).containsExactly(-3L);
+    assertThat(uncles).containsExactly(-1L);
+  }
+
+  @Test
+  public void matchesAreReturnedInOrderOfIdUpToLimit() {
+    // given the owners of setup
+    // when
+    List<Long> all = nameIndex.search("owner", null);
+    List<Long> first = nameIndex.search("owner", 1);
+
+    // then
+    assertThat(all).containsExactly(-4L, -3L);
+    assertThat(first).containsExactly(-4L);
+  }
+
+  @Test
+  public void nameContainingAllTrigramsButNotTheSubstringDoesNotMatch() {
+    // given the owners of setup
+    // when
+    List<Long> owners = nameIndex.search("abcabc", null);
+
+    // then
+    assertThat(owners).isEmpty();
+  }
+
+  @Test
+  public void shortAndEmptySubstringsAreSearchedWithoutTrigrams() {
+    // given the owners of setup
+    // when
+    List<Long> bs = nameIndex.search("b", null);
+    List<Long> all = nameIndex.search("", null);
+
+    // then
+    assertThat(bs).containsExactly(-2L, -1L);
+    assertThat(all).containsExactly(-4L, -3L, -2L, -1L);
+  }
+
+  @Test
+  public void createdOwnerIsFound() {
+    // given
+    nameIndex.put(owner(1L, "New", "Owner"));
+
+    // when
+    List<Long> owners = nameIndex.search("w own", null);
+
+    // then
+    assertThat(owners).containsExactly(1L);
+  }
+
+  private static Owner owner(long id, String firstName, String lastName) {
+    return new Owner()
+            .setId(id)
+            .setFirstName(firstName)
+            .setLastName(lastName);
+  }
+}
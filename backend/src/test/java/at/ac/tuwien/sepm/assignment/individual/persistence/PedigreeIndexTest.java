@@ -0,0 +1,158 @@
+package at.ac.tuwien.sepm.assignment.individual.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import at.ac.tuwien.sepm.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepm.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepm.assignment.individual.type.Sex;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PedigreeIndexTest {
+
+  private PedigreeIndex pedigreeIndex;
+
+  @BeforeEach
+  public void setup() {
+    pedigreeIndex = new PedigreeIndex();
+    pedigreeIndex.rebuild(List.of(
+            horse(-1L, "Wendy", Sex.FEMALE, null, null),
+            horse(-2L, "Baba", Sex.MALE, null, null),
+            horse(-3L, "Mendy", Sex.MALE, -1L, -2L),
+            horse(-4L, "Bella", Sex.FEMALE, null, null),
+            horse(-5L, "JJJ", Sex.MALE, -4L, -3L)));
+  }
+
+  @Test
+  public void familyTreeContainsRequestedGenerations() throws Exception {
+    // given the horses of setup
+    // when
+    List<Horse> twoGenerations = pedigreeIndex.getFamilyTree(-5, 2);
+    List<Horse> allGenerations = pedigreeIndex.getFamilyTree(-5, 10);
+
+    // then
+    assertThat(twoGenerations)
+            .extracting(Horse::getId)
+            .containsExactlyInAnyOrder(-5L, -4L, -3L);
+    assertThat(allGenerations)
+            .extracting(Horse::getId)
+            .containsExactlyInAnyOrder(-5L, -4L, -3L, -1L, -2L);
+  }
+
+  @Test
+  public void familyTreeContainsSharedAncestorsOnlyOnce() throws Exception {
+    // given
+    pedigreeIndex.put(horse(-6L, "Sister", Sex.FEMALE, -1L, -2L));
+    pedigreeIndex.put(horse(-7L, "Inbred", Sex.MALE, -6L, -3L));
+
+    // when
+    List<Horse> familyTree = pedigreeIndex.getFamilyTree(-7, 3);
+
+    // then
+    assertThat(familyTree)
+            .extracting(Horse::getId)
+            .containsExactlyInAnyOrder(-7L, -6L, -3L, -1L, -2L);
+  }
+
+  @Test
+  public void removedHorseIsNoLongerReferencedAsParent() throws Exception {
+    // given the horses of setup
+    // when
+    pedigreeIndex.remove(-3L);
+
+    // then
+    NotFoundException thrown = assertThrows(NotFoundException.class, () -> pedigreeIndex.getById(-3));
+    Horse child = pedigreeIndex.getById(-5);
+    assertAll(
+            () -> assertThat(thrown.getMessage()).contains("No horse with ID -3 found"),
+            () -> assertThat(child.getMotherId()).isEqualTo(-4L),
+            () -> assertThat(child.getFatherId()).isNull(),
+            () -> assertThat(pedigreeIndex.getFamilyTree(-5, 10))
+                    .extracting(Horse::getId)
+                    .containsExactlyInAnyOrder(-5L, -4L)
+    );
+  }
+
+  @Test
+  public void updatedHorseReplacesPreviousEntry() throws Exception {
+    // given the horses of setup
+    // when
+    pedigreeIndex.put(horse(-4L, "Bella II", Sex.FEMALE, -1L, null));
+
+    // then
+    Horse updated = pedigreeIndex.getById(-4);
+    assertAll(
+            () -> assertThat(updated.getName()).isEqualTo("Bella II"),
+            () -> assertThat(updated.getMotherId()).isEqualTo(-1L),
+            () -> assertThat(pedigreeIndex.getFamilyTree(-4, 2))
+                    .extracting(Horse::getId)
+                    .containsExactlyInAnyOrder(-4L, -1L)
+    );
+  }
+
+  @Test
+  public void indexStaysConsistentWhenGrowingAndShrinking() throws Exception {
+    // given
+    List<Horse> horses = new ArrayList<>();
+    for (long id = 1; id <= 1000; id++) {
+      horses.add(horse(id, "Horse " + id, Sex.MALE, null, id > 1 ? id - 1 : null));
+    }
+    horses.forEach(pedigreeIndex::put);
+
+    // when
+    for (long id = 2; id <= 1000; id += 2) {
+      pedigreeIndex.remove(id);
+    }
+
+    // then
+    for (long id = 1; id <= 1000; id++) {
+      if (id % 2 == 0) {
+        final long removedId = id;
+        assertThrows(NotFoundException.class, () -> pedigreeIndex.getById(removedId));
+      } else {
+        assertThat(pedigreeIndex.getById(id).getName()).isEqualTo("Horse " + id);
+      }
+    }
+    assertThat(pedigreeIndex.getById(-5).getName()).isEqualTo("JJJ");
+  }
+
+  @Test
+  public void ancestorsAreFoundOverAllGenerations() {
+    // given the horses of setup
+    // when, then
+    assertAll(
+            () -> assertThat(pedigreeIndex.isAncestor(-1, -5)).isTrue(),
+            () -> assertThat(pedigreeIndex.isAncestor(-4, -5)).isTrue(),
+            () -> assertThat(pedigreeIndex.isAncestor(-5, -5)).isTrue(),
+            () -> assertThat(pedigreeIndex.isAncestor(-5, -1)).isFalse(),
+            () -> assertThat(pedigreeIndex.isAncestor(-4, -3)).isFalse(),
+            () -> assertThat(pedigreeIndex.isAncestor(-100, -5)).isFalse()
+    );
+  }
+
+  @Test
+  public void ancestorWalkTerminatesOnExistingCycle() {
+    // given a cycle, that bypassed the validation
+    pedigreeIndex.put(horse(-1L, "Wendy", Sex.FEMALE, -5L, null));
+
+    // when, then
+    assertAll(
+            () -> assertThat(pedigreeIndex.isAncestor(-3, -1)).isTrue(),
+            () -> assertThat(pedigreeIndex.isAncestor(-100, -1)).isFalse()
+    );
+  }
+
+  private static Horse horse(Long id, String name, Sex sex, Long motherId, Long fatherId) {
+    return new Horse()
+            .setId(id)
+            .setName(name)
+            .setDateOfBirth(LocalDate.parse("2010-10-10"))
+            .setSex(sex)
+            .setMotherId(motherId)
+            .setFatherId(fatherId);
+  }
+}
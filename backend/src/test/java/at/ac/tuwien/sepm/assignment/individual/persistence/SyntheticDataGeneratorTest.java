@@ -0,0 +1,94 @@
+package at.ac.tuwien.sepm.assignment.individual.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import java.util.List;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+public class SyntheticDataGeneratorTest {
+
+  private DriverManagerDataSource dataSource;
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  public void setup() {
+    // every connection of the inserting threads opens the same in-memory database
+    dataSource = new DriverManagerDataSource("jdbc:h2:mem:synthetic;DB_CLOSE_DELAY=-1", "sa", "");
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("DROP ALL OBJECTS");
+    Flyway.configure().dataSource(dataSource).load().migrate();
+  }
+
+  @Test
+  public void generatesRequestedNumberOfOwnersAndHorses() throws Exception {
+    // given
+    SyntheticDataGenerator generator = new SyntheticDataGenerator(dataSource, 4, 100);
+
+    // when
+    generator.generate(50, 2003, 5, 1);
+
+    // then
+    assertAll(
+        () -> assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM owner", Integer.class)).isEqualTo(50),
+        () -> assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM horse", Integer.class)).isEqualTo(2003),
+        // only the first generation has no parents
+        () -> assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM horse WHERE mother_id IS NULL", Integer.class))
+            .isEqualTo(400)
+    );
+  }
+
+  @Test
+  public void parentsHaveMatchingSexAndAreBornBeforeTheirChildren() throws Exception {
+    // given
+    SyntheticDataGenerator generator = new SyntheticDataGenerator(dataSource, 4, 100);
+
+    // when
+    generator.generate(50, 2000, 5, 1);
+
+    // then
+    Integer invalidParents = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM horse child"
+        + " JOIN horse mother ON mother.id = child.mother_id JOIN horse father ON father.id = child.father_id"
+        + " WHERE mother.sex <> 'FEMALE' OR father.sex <> 'MALE'"
+        + " OR mother.date_of_birth >= child.date_of_birth OR father.date_of_birth >= child.date_of_birth",
+        Integer.class);
+    assertThat(invalidParents).isZero();
+  }
+
+  @Test
+  public void pedigreesShareAncestors() throws Exception {
+    // given
+    SyntheticDataGenerator generator = new SyntheticDataGenerator(dataSource, 4, 100);
+
+    // when
+    generator.generate(50, 2000, 5, 1);
+
+    // then the most popular stallion of a generation sires far more than the average of two foals of the next one
+    Integer mostFoals = jdbcTemplate.queryForObject("SELECT MAX(foals) FROM"
+        + " (SELECT COUNT(*) AS foals FROM horse WHERE father_id IS NOT NULL GROUP BY father_id)", Integer.class);
+    assertThat(mostFoals).isGreaterThan(10);
+  }
+
+  @Test
+  public void dataDoesNotDependOnNumberOfThreads() throws Exception {
+    // given
+    new SyntheticDataGenerator(dataSource, 1, 100).generate(50, 2000, 5, 1);
+    final List<String> singleThreaded = horses();
+    jdbcTemplate.execute("DELETE FROM horse");
+    jdbcTemplate.execute("DELETE FROM owner");
+
+    // when
+    new SyntheticDataGenerator(dataSource, 4, 100).generate(50, 2000, 5, 1);
+
+    // then
+    assertThat(horses()).isEqualTo(singleThreaded);
+  }
+
+  private List<String> horses() {
+    return jdbcTemplate.queryForList("SELECT CONCAT_WS(',', id, name, description, date_of_birth, sex,"
+        + " owner_id, mother_id, father_id) FROM horse ORDER BY id", String.class);
+  }
+}
@@ -0,0 +1,139 @@
+package at.ac.tuwien.sepm.assignment.individual.persistence.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseSearchCursor;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseSearchDto;
+import at.ac.tuwien.sepm.assignment.individual.type.MatchMode;
+import java.time.LocalDate;
+import java.util.List;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Checks the query plans of the queries of {@link HorseJdbcDao} on a database with a million horses,
+ * so that a query, that falls back to scanning the whole table, is noticed.
+ * Creating the database takes most of a minute, so the test only runs with the profile {@code query-plan}.
+ */
+@Tag("query-plan")
+public class HorseQueryPlanTest {
+  private static final int HORSE_COUNT = 1_000_000;
+  private static final int INSERT_CHUNK = 10_000;
+  private static final String TABLE_SCAN = "HORSE.tableScan";
+
+  private static SingleConnectionDataSource dataSource;
+  private static JdbcTemplate jdbcTemplate;
+
+  @BeforeAll
+  public static void createDatabase() {
+    dataSource = new SingleConnectionDataSource("jdbc:h2:mem:queryplan", "sa", "", true);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+
+    // the horses are inserted into the initial schema, so that the later migrations have to index existing rows
+    Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+    // odd IDs are mares, even IDs are stallions; every horse is the child of the two horses born before it
+    jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+    for (int first = 1; first <= HORSE_COUNT; first += INSERT_CHUNK) {
+      jdbcTemplate.update("INSERT INTO horse (id, name, date_of_birth, sex, mother_id, father_id)"
+          + " SELECT x, 'Horse ' || x, DATEADD(DAY, -MOD(x, 10000), DATE '2020-01-01'),"
+          + " CASE MOD(x, 2) WHEN 1 THEN 'FEMALE' ELSE 'MALE' END,"
+          + " CASE WHEN x > 2 THEN x - 1 - MOD(x, 2) END,"
+          + " CASE WHEN x > 2 THEN x - 2 + MOD(x, 2) END"
+          + " FROM SYSTEM_RANGE(?, ?)", first, first + INSERT_CHUNK - 1);
+    }
+    jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    Flyway.configure().dataSource(dataSource).load().migrate();
+    jdbcTemplate.execute("ANALYZE");
+  }
+
+  @AfterAll
+  public static void dropDatabase() {
+    dataSource.destroy();
+  }
+
+  @Test
+  public void childrenAreFoundThroughParentIndexes() {
+    // given a million horses
+    // when
+    String plan = explain(HorseJdbcDao.SQL_GET_CHILDREN, 500_000L, 500_000L);
+
+    // then
+    assertThat(plan).doesNotContain(TABLE_SCAN);
+  }
+
+  @Test
+  public void descendantsAreFoundThroughParentIndexes() {
+    // given a million horses
+    // when
+    String plan = explain(HorseJdbcDao.SQL_DESCENDANTS, 500_000L, 10);
+
+    // then
+    assertThat(plan).doesNotContain(TABLE_SCAN);
+  }
+
+  @Test
+  public void childrenOfDeletedParentAreFoundThroughParentIndexes() {
+    // given a million horses
+    // when
+    String motherPlan = explain(HorseJdbcDao.SQL_UPDATE_CHILDREN_WHEN_DELETING_MOTHER, 500_001L);
+    String fatherPlan = explain(HorseJdbcDao.SQL_UPDATE_CHILDREN_WHEN_DELETING_FATHER, 500_000L);
+
+    // then
+    assertThat(motherPlan).doesNotContain(TABLE_SCAN);
+    assertThat(fatherPlan).doesNotContain(TABLE_SCAN);
+  }
+
+  @Test
+  public void familyTreeFollowsParentsThroughPrimaryKey() {
+    // given a million horses
+    // when
+    String plan = explain(HorseJdbcDao.SQL_FAMILY_TREE, 500_000L, 5);
+
+    // then
+    assertThat(plan).doesNotContain(TABLE_SCAN);
+  }
+
+  @Test
+  public void searchBornBeforeUsesDateOfBirthIndex() {
+    // given a million horses
+    // when
+    String plan = explainSearch(new HorseSearchDto(null, null, LocalDate.of(1992, 8, 20), null, null, null, null, null));
+
+    // then
+    assertThat(plan).contains("HORSE_DATE_OF_BIRTH_IDX");
+  }
+
+  @Test
+  public void searchPageIsReadInNameOrder() {
+    // given a million horses
+    // when
+    String plan = explainSearch(new HorseSearchDto(null, null, null, null, null, 20,
+        new HorseSearchCursor("Horse 500000", 500_000L), null));
+
+    // then
+    assertThat(plan).contains("HORSE_NAME_IDX");
+  }
+
+  @Test
+  public void searchByNamePrefixUsesNormalizedNameIndex() {
+    // given a million horses
+    // when
+    String plan = explainSearch(new HorseSearchDto("horse 4999", null, null, null, null, 20, null, MatchMode.PREFIX));
+
+    // then
+    assertThat(plan).contains("HORSE_NAME_NORM_IDX");
+  }
+
+  private String explainSearch(HorseSearchDto searchDto) {
+    SearchQueryCompiler.SearchQuery query = HorseJdbcDao.SEARCH_WITH_OWNER.compile(searchDto);
+    return String.join("\n", jdbcTemplate.query("EXPLAIN " + query.sql(), query, (result, rownum) -> result.getString(1)));
+  }
+
+  private String explain(String sql, Object... params) {
+    return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, params));
+  }
+}
@@ -0,0 +1,140 @@
+package at.ac.tuwien.sepm.assignment.individual.persistence.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseSearchDto;
+import at.ac.tuwien.sepm.assignment.individual.persistence.HorseTextIndex;
+import at.ac.tuwien.sepm.assignment.individual.persistence.PedigreeIndex;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Checks, that streaming the horse search hands every row to the consumer while the cursor is still open,
+ * and that the lazy query execution of H2 is only enabled for the streamed query.
+ * The statements of the DAO go to a real database, through mocks, that record them.
+ */
+public class HorseStreamingTest {
+  private static final int HORSE_COUNT = 3;
+  private static final String LAZY = "SET LAZY_QUERY_EXECUTION TRUE";
+  private static final String NOT_LAZY = "SET LAZY_QUERY_EXECUTION FALSE";
+
+  private static Connection database;
+
+  private final List<Statement> statements = new ArrayList<>();
+  private final List<PreparedStatement> queries = new ArrayList<>();
+  private final List<ResultSet> results = new ArrayList<>();
+  private HorseJdbcDao horseDao;
+
+  @BeforeAll
+  public static void createDatabase() throws SQLException {
+    database = DriverManager.getConnection("jdbc:h2:mem:streaming", "sa", "");
+    SingleConnectionDataSource dataSource = new SingleConnectionDataSource(database, true);
+    Flyway.configure().dataSource(dataSource).load().migrate();
+    new JdbcTemplate(dataSource).update("INSERT INTO horse (name, date_of_birth, sex)"
+        + " SELECT 'Horse ' || x, DATE '2020-01-01', 'MALE' FROM SYSTEM_RANGE(1, ?)", HORSE_COUNT);
+  }
+
+  @AfterAll
+  public static void dropDatabase() throws SQLException {
+    database.close();
+  }
+
+  @BeforeEach
+  public void setup() throws SQLException {
+    Connection connection = mock(Connection.class, delegatesTo(database));
+    doAnswer(invocation -> {
+      Statement statement = mock(Statement.class, delegatesTo(database.createStatement()));
+      statements.add(statement);
+      return statement;
+    }).when(connection).createStatement();
+    doAnswer(invocation -> {
+      PreparedStatement target = database.prepareStatement(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+      PreparedStatement query = mock(PreparedStatement.class, delegatesTo(target));
+      doAnswer(execution -> {
+        ResultSet result = target.executeQuery();
+        results.add(result);
+        return result;
+      }).when(query).executeQuery();
+      queries.add(query);
+      return query;
+    }).when(connection).prepareStatement(anyString(), anyInt(), anyInt());
+    // the indexes stay empty and nothing listens to changes, as the streamed queries do not use them
+    horseDao = new HorseJdbcDao(new JdbcTemplate(new SingleConnectionDataSource(connection, true)),
+        new PedigreeIndex(), new HorseTextIndex(), List.of(), 500);
+  }
+
+  @Test
+  public void rowsAreConsumedWhileTheCursorIsOpen() throws SQLException {
+    // given the horses of createDatabase
+    List<Boolean> closedWhenConsumed = new ArrayList<>();
+
+    // when
+    horseDao.streamHorsesWithOwner(searchAll(), horse -> closedWhenConsumed.add(isClosed(results.get(0))));
+
+    // then
+    assertThat(closedWhenConsumed).hasSize(HORSE_COUNT).containsOnly(false);
+    assertThat(results).hasSize(1);
+    assertThat(results.get(0).isClosed()).isTrue();
+  }
+
+  @Test
+  public void lazyExecutionIsOnlyEnabledForTheStreamedQuery() throws SQLException {
+    // given the horses of createDatabase
+    // when
+    horseDao.streamHorsesWithOwner(searchAll(), horse -> { });
+
+    // then
+    assertThat(statements).hasSize(1);
+    assertThat(queries).hasSize(1);
+    InOrder order = inOrder(statements.get(0), queries.get(0));
+    order.verify(statements.get(0)).execute(LAZY);
+    order.verify(queries.get(0)).executeQuery();
+    order.verify(statements.get(0)).execute(NOT_LAZY);
+  }
+
+  @Test
+  public void lazyExecutionIsResetWhenTheConsumerFails() throws SQLException {
+    // given the horses of createDatabase
+    // when
+    assertThatThrownBy(() -> horseDao.streamHorsesWithOwner(searchAll(), horse -> {
+      throw new IllegalStateException("consumer failed");
+    })).hasMessage("consumer failed");
+
+    // then
+    InOrder order = inOrder(statements.get(0));
+    order.verify(statements.get(0)).execute(LAZY);
+    order.verify(statements.get(0)).execute(NOT_LAZY);
+  }
+
+  private static HorseSearchDto searchAll() {
+    return new HorseSearchDto(null, null, null, null, null, null, null, null);
+  }
+
+  private static boolean isClosed(ResultSet result) {
+    try {
+      return result.isClosed();
+    } catch (SQLException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
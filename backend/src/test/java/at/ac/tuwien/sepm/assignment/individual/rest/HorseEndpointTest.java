@@ -4,8 +4,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseDescendantDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseDetailDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseFamilyGraphDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseFamilyGraphNodeDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseListDto;
 import at.ac.tuwien.sepm.assignment.individual.exception.ConflictException;
 import at.ac.tuwien.sepm.assignment.individual.persistence.DataGeneratorBean;
@@ -13,16 +19,20 @@ import at.ac.tuwien.sepm.assignment.individual.type.Sex;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
@@ -76,6 +86,168 @@ public class HorseEndpointTest {
                     tuple(-9L, "Pegasus"), tuple(-10L, "THY"));
   }
 
+  @Test
+  public void streamingHorsesWritesOneLinePerHorse() throws Exception {
+    // given the current state of db
+    // when
+    MvcResult started = mockMvc
+        .perform(MockMvcRequestBuilders
+            .get("/horses")
+            .queryParam("sex", "FEMALE")
+            .accept(MediaType.APPLICATION_NDJSON)
+        ).andExpect(request().asyncStarted())
+        .andReturn();
+    String body = mockMvc
+        .perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+        .andReturn().getResponse().getContentAsString();
+
+    List<HorseListDto> horseResult = new ArrayList<>();
+    for (String line : body.split("\n")) {
+      horseResult.add(objectMapper.readValue(line, HorseListDto.class));
+    }
+
+    // then
+    assertAll(
+        () -> assertThat(body).endsWith("\n"),
+        () -> assertThat(horseResult)
+            .extracting(HorseListDto::id)
+            .containsExactly(-4L, -9L, -8L, -1L),
+        () -> assertThat(horseResult)
+            .filteredOn(horse -> horse.id() == -4L)
+            .extracting(horse -> horse.owner().email())
+            .containsExactly("uncle.bob@gmail.com")
+    );
+  }
+
+  @Test
+  public void pagingThroughHorsesFollowsNextLinks() throws Exception {
+    // given the current state of db
+    String uri = "/horses?maxAmount=4";
+    List<String> names = new ArrayList<>();
+    List<Integer> pageSizes = new ArrayList<>();
+
+    // when
+    while (uri != null) {
+      MockHttpServletResponse response = mockMvc
+          .perform(MockMvcRequestBuilders
+              .get(uri)
+              .accept(MediaType.APPLICATION_JSON)
+          ).andExpect(status().isOk())
+          .andReturn().getResponse();
+      List<HorseListDto> page = objectMapper.readerFor(HorseListDto.class).<HorseListDto>readValues(response.getContentAsByteArray()).readAll();
+      page.forEach(horse -> names.add(horse.name()));
+      pageSizes.add(page.size());
+
+      String link = response.getHeader(HttpHeaders.LINK);
+      uri = link == null
+          ? null
+          : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+    }
+
+    // then
+    assertAll(
+        () -> assertThat(pageSizes).containsExactly(4, 4, 2),
+        () -> assertThat(names)
+            .containsExactly("Baba", "Bella", "Bullseye", "George", "JJJ", "Mendy", "Pegasus", "Plane", "THY", "Wendy")
+    );
+  }
+
+  @Test
+  public void searchingWithMalformedCursorReturns400() throws Exception {
+    mockMvc
+        .perform(MockMvcRequestBuilders
+            .get("/horses")
+            .queryParam("cursor", "not a cursor")
+            .accept(MediaType.APPLICATION_JSON)
+        ).andExpect(status().isBadRequest());
+  }
+
+  @Test
+  public void gettingFamilyTreeAsGraphContainsEveryHorseOnce() throws Exception {
+    // given the current state of db
+    // when
+    byte[] body = mockMvc
+        .perform(MockMvcRequestBuilders
+            .get("/horses/-5/familytree/3")
+            .queryParam("format", "graph")
+            .accept(MediaType.APPLICATION_JSON)
+        ).andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsByteArray();
+
+    HorseFamilyGraphDto familyGraph = objectMapper.readValue(body, HorseFamilyGraphDto.class);
+
+    // then
+    assertThat(familyGraph.rootId()).isEqualTo(-5L);
+    assertThat(familyGraph.horses())
+        .extracting(HorseFamilyGraphNodeDto::id, HorseFamilyGraphNodeDto::motherId, HorseFamilyGraphNodeDto::fatherId)
+        .containsExactlyInAnyOrder(tuple(-5L, -4L, -3L), tuple(-4L, null, null),
+                tuple(-3L, -1L, -2L), tuple(-1L, null, null), tuple(-2L, null, null));
+  }
+
+  @Test
+  public void gettingDescendantsReturnsAllGenerationsInOrder() throws Exception {
+    // given the current state of db
+    // when
+    byte[] body = mockMvc
+        .perform(MockMvcRequestBuilders
+            .get("/horses/-2/descendants/5")
+            .accept(MediaType.APPLICATION_JSON)
+        ).andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsByteArray();
+
+    List<HorseDescendantDto> descendants = objectMapper.readerFor(HorseDescendantDto.class).<HorseDescendantDto>readValues(body).readAll();
+
+    // then
+    assertThat(descendants)
+        .extracting(HorseDescendantDto::id, HorseDescendantDto::generation)
+        .containsExactly(tuple(-3L, 1), tuple(-9L, 2), tuple(-5L, 2));
+  }
+
+  @Test
+  public void streamingDescendantsWritesOneLinePerDescendantUpToMaxAmount() throws Exception {
+    // given the current state of db
+    // when
+    MvcResult started = mockMvc
+        .perform(MockMvcRequestBuilders
+            .get("/horses/-6/descendants/3")
+            .queryParam("maxAmount", "1")
+            .accept(MediaType.APPLICATION_NDJSON)
+        ).andExpect(request().asyncStarted())
+        .andReturn();
+    String body = mockMvc
+        .perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+        .andReturn().getResponse().getContentAsString();
+
+    // then
+    assertThat(body.split("\n")).hasSize(1);
+    assertThat(objectMapper.readValue(body.split("\n")[0], HorseDescendantDto.class))
+        .isEqualTo(new HorseDescendantDto(-7L, "Bullseye", LocalDate.parse("2013-10-11"), Sex.MALE, null, -6L, 1));
+  }
+
+  @Test
+  public void streamingDescendantsOfNonexistentHorseReturns404() throws Exception {
+    mockMvc
+        .perform(MockMvcRequestBuilders
+            .get("/horses/-100/descendants/3")
+            .accept(MediaType.APPLICATION_NDJSON)
+        ).andExpect(request().asyncNotStarted())
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  public void streamingDescendantsWithInvalidGenerationsReturns422() throws Exception {
+    mockMvc
+        .perform(MockMvcRequestBuilders
+            .get("/horses/-6/descendants/0")
+            .accept(MediaType.APPLICATION_NDJSON)
+        ).andExpect(request().asyncNotStarted())
+        .andExpect(status().isUnprocessableEntity());
+  }
+
   @Test
   public void gettingNonexistentUrlReturns404() throws Exception {
     mockMvc
@@ -112,6 +284,32 @@ public class HorseEndpointTest {
             .contains("Horse", "EndPoint Test create", LocalDate.parse("2010-10-10"), Sex.FEMALE);
   }
 
+  @Test
+  public void creatingBatchReturnsCreatedHorsesInOrder() throws Exception {
+    // given the current state of db
+    String batchJsonString = "[{\"ref\": \"foal\", \"motherRef\": \"mare\","
+            + "\"horse\": {\"name\": \"Foal\", \"dateOfBirth\": \"2022-04-04\", \"sex\": \"MALE\"}},"
+            + "{\"ref\": \"mare\","
+            + "\"horse\": {\"name\": \"Mare\", \"dateOfBirth\": \"2019-03-03\", \"sex\": \"FEMALE\","
+            + "\"owner\": {\"id\": -1}}}]";
+
+    // when
+    byte[] body = mockMvc.perform(MockMvcRequestBuilders
+                    .post("/horses/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(batchJsonString)
+                    .accept(MediaType.APPLICATION_JSON)
+            ).andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsByteArray();
+
+    List<HorseListDto> horseResult = objectMapper.readerFor(HorseListDto.class).<HorseListDto>readValues(body).readAll();
+
+    // then
+    assertThat(horseResult)
+            .extracting(HorseListDto::name, horse -> horse.owner() == null ? null : horse.owner().id())
+            .containsExactly(tuple("Foal", null), tuple("Mare", -1L));
+  }
+
   @Test
   public void shouldSuccessfullyUpdateHorse() throws Exception {
     // given the current state of db
@@ -1,15 +1,25 @@
 package at.ac.tuwien.sepm.assignment.individual.service;
 
+import at.ac.tuwien.sepm.assignment.individual.StatementCounter;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseBatchEntryDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseCreateDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseDescendantDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseDetailDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseFamilyTreeDto;
 import at.ac.tuwien.sepm.assignment.individual.dto.HorseListDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseSearchDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseTextSearchDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.OwnerDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.ParentDto;
 import at.ac.tuwien.sepm.assignment.individual.exception.ConflictException;
+import at.ac.tuwien.sepm.assignment.individual.exception.NotFoundException;
 import at.ac.tuwien.sepm.assignment.individual.exception.ValidationException;
 import at.ac.tuwien.sepm.assignment.individual.persistence.DataGeneratorBean;
 import at.ac.tuwien.sepm.assignment.individual.type.Sex;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +27,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
@@ -27,11 +38,15 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @ActiveProfiles({"test", "datagen"}) // enable "test" spring profile during test execution in order to pick up configuration from application-test.yml
 @SpringBootTest
+@Import(StatementCounter.class)
 public class HorseServiceTest {
 
   @Autowired
   HorseService horseService;
 
+  @Autowired
+  StatementCounter statementCounter;
+
   @Autowired
   DataGeneratorBean dataGeneratorBean;
 
@@ -76,6 +91,273 @@ public class HorseServiceTest {
     );
   }
 
+  @Test
+  public void detailsOfHorseAreFetchedInOneStatement() throws Exception {
+    // given the current state of db
+    statementCounter.reset();
+
+    // when
+    HorseDetailDto horse = horseService.getById(-5);
+
+    // then
+    assertAll(
+            () -> assertThat(statementCounter.count()).isEqualTo(1),
+            () -> assertThat(horse.name()).isEqualTo("JJJ"),
+            () -> assertThat(horse.owner().id()).isEqualTo(-1L),
+            () -> assertThat(horse.owner().firstName()).isEqualTo("Uncle"),
+            () -> assertThat(horse.owner().email()).isEqualTo("uncle.bob@gmail.com"),
+            () -> assertThat(horse.mother()).isEqualTo(new ParentDto(-4L, "Bella")),
+            () -> assertThat(horse.father()).isEqualTo(new ParentDto(-3L, "Mendy"))
+    );
+  }
+
+  @Test
+  public void searchResolvesOwnersInOneStatement() {
+    // given the current state of db
+    statementCounter.reset();
+
+    // when
+    List<HorseListDto> horses = horseService.searchHorses(
+            new HorseSearchDto(null, null, null, Sex.MALE, "Uncle", null, null, null)).toList();
+
+    // then
+    assertThat(statementCounter.count()).isEqualTo(1);
+    assertThat(horses)
+            .extracting(HorseListDto::name, horse -> horse.owner().lastName())
+            .containsExactlyInAnyOrder(tuple("Mendy", "Bob"), tuple("JJJ", "Bob"));
+  }
+
+  @Test
+  public void textSearchRanksHorsesAndResolvesOwners() {
+    // given the current state of db
+    // when
+    List<HorseListDto> horses = horseService.searchHorsesByText(new HorseTextSearchDto("gran", null));
+
+    // then
+    assertThat(horses)
+            .extracting(HorseListDto::name, horse -> horse.owner().lastName())
+            .containsExactlyInAnyOrder(tuple("Wendy", "Test"), tuple("Baba", "Host"));
+  }
+
+  @Test
+  public void textSearchFindsNewlyCreatedHorse() throws Exception {
+    // given
+    HorseDetailDto created = horseService.create(new HorseCreateDto("Thunder Bolt", "Fast as lightning",
+            LocalDate.of(2001, 1, 1), Sex.MALE, null, null, null));
+
+    // when
+    List<HorseListDto> horses = horseService.searchHorsesByText(new HorseTextSearchDto("lightning thunder", 5));
+
+    // then
+    assertThat(horses)
+            .extracting(HorseListDto::id)
+            .containsExactly(created.id());
+  }
+
+  @Test
+  public void detailsOfHorseWithoutOwnerAndParentsAreFetched() throws Exception {
+    // given
+    HorseDetailDto created = horseService.create(new HorseCreateDto("Loner", null,
+            LocalDate.of(2001, 1, 1), Sex.MALE, null, null, null));
+
+    // when
+    HorseDetailDto horse = horseService.getById(created.id());
+
+    // then
+    assertAll(
+            () -> assertThat(horse).isEqualTo(created),
+            () -> assertThat(horse.owner()).isNull(),
+            () -> assertThat(horse.mother()).isNull(),
+            () -> assertThat(horse.father()).isNull()
+    );
+  }
+
+  @Test
+  public void familyTreeContainsNewlyCreatedHorse() throws Exception {
+    // given the current state of db
+    HorseDetailDto foal = horseService.create(new HorseCreateDto("Foal", null,
+            LocalDate.of(2020, 5, 5), Sex.FEMALE, null, new ParentDto(-4L, "Bella"), new ParentDto(-3L, "Mendy")));
+
+    // when
+    HorseFamilyTreeDto familyTree = horseService.getFamilyTree(foal.id(), 3);
+
+    // then
+    assertAll(
+            () -> assertThat(familyTree.name()).isEqualTo("Foal"),
+            () -> assertThat(familyTree.mother().id()).isEqualTo(-4L),
+            () -> assertThat(familyTree.father().id()).isEqualTo(-3L),
+            () -> assertThat(familyTree.father().mother().name()).isEqualTo("Wendy"),
+            () -> assertThat(familyTree.father().father().name()).isEqualTo("Baba"),
+            () -> assertThat(familyTree.father().father().mother()).isNull()
+    );
+  }
+
+  @Test
+  public void shouldThrowConflictExceptionWhenDescendantBecomesParent() {
+    // given the current state of db, where JJJ is a grandchild of Wendy
+    // when
+    HorseDetailDto wendy = new HorseDetailDto(-1L, "Wendy", "Grand Mother", LocalDate.parse("2012-12-12"), Sex.FEMALE,
+            new OwnerDto(-4L, null, null, null), null, new ParentDto(-5L, null));
+
+    // then
+    ConflictException thrown = assertThrows(ConflictException.class, () -> horseService.update(wendy));
+    assertThat(thrown.errors()).contains("The given father is a descendant of the horse");
+  }
+
+  @Test
+  public void updateReadsItsValidationContextInOneStatement() throws Exception {
+    // given the current state of db
+    statementCounter.reset();
+
+    // when
+    HorseDetailDto updated = horseService.update(new HorseDetailDto(-5L, "JJJ", "Renamed", LocalDate.of(2020, 12, 12), Sex.MALE,
+            new OwnerDto(-1L, null, null, null), new ParentDto(-4L, null), new ParentDto(-3L, null)));
+
+    // then
+    // one read of owner, parents and children of the horse, and the update itself
+    assertAll(
+            () -> assertThat(statementCounter.count()).isEqualTo(2),
+            () -> assertThat(updated.description()).isEqualTo("Renamed"),
+            () -> assertThat(updated.owner().email()).isEqualTo("uncle.bob@gmail.com"),
+            () -> assertThat(updated.mother()).isEqualTo(new ParentDto(-4L, "Bella")),
+            () -> assertThat(updated.father()).isEqualTo(new ParentDto(-3L, "Mendy"))
+    );
+  }
+
+  @Test
+  public void updateOfMissingHorseIsNotFound() {
+    // given the current state of db
+    // when
+    HorseDetailDto missing = new HorseDetailDto(-100L, "Missing", null, LocalDate.of(2020, 1, 1), Sex.MALE, null, null, null);
+
+    // then
+    assertThrows(NotFoundException.class, () -> horseService.update(missing));
+  }
+
+  @Test
+  public void descendantsAreLimitedToRequestedGenerations() throws Exception {
+    // given the current state of db
+    // when
+    List<HorseDescendantDto> children = horseService.getDescendants(-6L, 1, null);
+    List<HorseDescendantDto> descendants = horseService.getDescendants(-6L, 2, null);
+
+    // then
+    assertThat(children).extracting(HorseDescendantDto::id).containsExactly(-7L);
+    assertThat(descendants).extracting(HorseDescendantDto::id).containsExactly(-7L, -10L);
+  }
+
+  @Test
+  public void descendantsRequestWithoutGenerationsIsInvalid() {
+    // given the current state of db
+    // when
+    ValidationException thrown = assertThrows(ValidationException.class, () -> horseService.getDescendants(-6L, 0, 0));
+
+    // then
+    assertThat(thrown.errors()).containsExactlyInAnyOrder(
+            "Number of generations must be positive", "Maximum amount of descendants must be positive");
+  }
+
+  @Test
+  public void cachedFamilyTreeShowsChangedAncestor() throws Exception {
+    // given the current state of db
+    HorseFamilyTreeDto cached = horseService.getFamilyTree(-5, 3);
+    HorseFamilyTreeDto fromCache = horseService.getFamilyTree(-5, 3);
+
+    // when
+    horseService.update(new HorseDetailDto(-1L, "Windy", "Grand Mother", LocalDate.of(2012, 12, 12), Sex.FEMALE,
+            new OwnerDto(-4L, null, null, null), null, null));
+    HorseFamilyTreeDto familyTree = horseService.getFamilyTree(-5, 3);
+
+    // then
+    assertAll(
+            () -> assertThat(fromCache).isSameAs(cached),
+            () -> assertThat(familyTree.father().mother().name()).isEqualTo("Windy"),
+            () -> assertThat(familyTree.mother().name()).isEqualTo("Bella")
+    );
+  }
+
+  @Test
+  public void batchCreatesHorsesReferringToEachOther() throws Exception {
+    // given the current state of db
+    OwnerDto owner = new OwnerDto(-1L, null, null, null);
+    List<HorseBatchEntryDto> batch = List.of(
+        new HorseBatchEntryDto("foal", new HorseCreateDto("Foal", null,
+            LocalDate.of(2022, 4, 4), Sex.FEMALE, owner, null, null), "mare", "stallion"),
+        new HorseBatchEntryDto("mare", new HorseCreateDto("Mare", null,
+            LocalDate.of(2019, 3, 3), Sex.FEMALE, owner, new ParentDto(-4L, null), null), null, null),
+        new HorseBatchEntryDto("stallion", new HorseCreateDto("Stallion", null,
+            LocalDate.of(2018, 2, 2), Sex.MALE, null, null, null), null, null));
+    statementCounter.reset();
+
+    // when
+    List<HorseListDto> created = horseService.createBatch(batch);
+
+    // then
+    // owner check and one insert per generation within the batch, the owners of the result are cached by the check
+    assertThat(statementCounter.count()).isEqualTo(3);
+    assertThat(created)
+        .extracting(HorseListDto::name, horse -> horse.owner() == null ? null : horse.owner().email())
+        .containsExactly(tuple("Foal", "uncle.bob@gmail.com"), tuple("Mare", "uncle.bob@gmail.com"), tuple("Stallion", null));
+
+    HorseFamilyTreeDto familyTree = horseService.getFamilyTree(created.get(0).id(), 3);
+    assertAll(
+        () -> assertThat(familyTree.mother().id()).isEqualTo(created.get(1).id()),
+        () -> assertThat(familyTree.father().id()).isEqualTo(created.get(2).id()),
+        () -> assertThat(familyTree.mother().mother().name()).isEqualTo("Bella")
+    );
+  }
+
+  @Test
+  public void batchReferringToParentOutsideOfBatchIsRejected() {
+    // given the current state of db
+    List<HorseBatchEntryDto> batch = List.of(
+        new HorseBatchEntryDto("foal", new HorseCreateDto("Foal", null,
+            LocalDate.of(2022, 4, 4), Sex.FEMALE, null, null, null), "unknown", null));
+
+    // when
+    ValidationException thrown = assertThrows(ValidationException.class, () -> horseService.createBatch(batch));
+
+    // then
+    assertThat(thrown.errors()).containsExactly("Horse 0: Referenced mother unknown is not part of the batch");
+  }
+
+  @Test
+  public void batchWithNullEntryIsRejected() {
+    // given the current state of db
+    List<HorseBatchEntryDto> batch = Arrays.asList(
+        new HorseBatchEntryDto("mare", new HorseCreateDto("Mare", null,
+            LocalDate.of(2018, 2, 2), Sex.FEMALE, null, null, null), null, null),
+        null);
+
+    // when
+    ValidationException thrown = assertThrows(ValidationException.class, () -> horseService.createBatch(batch));
+
+    // then
+    assertAll(
+        () -> assertThat(thrown.errors()).containsExactly("Horse 1: Entry cannot be null"),
+        () -> assertThat(horseService.allHorses().toList().size()).isEqualTo(10)
+    );
+  }
+
+  @Test
+  public void batchWithConflictCreatesNoHorse() {
+    // given the current state of db
+    List<HorseBatchEntryDto> batch = List.of(
+        new HorseBatchEntryDto("stallion", new HorseCreateDto("Stallion", null,
+            LocalDate.of(2018, 2, 2), Sex.MALE, null, null, null), null, null),
+        new HorseBatchEntryDto("foal", new HorseCreateDto("Foal", null,
+            LocalDate.of(2022, 4, 4), Sex.FEMALE, null, null, null), "stallion", null));
+
+    // when
+    ConflictException thrown = assertThrows(ConflictException.class, () -> horseService.createBatch(batch));
+
+    // then
+    assertAll(
+        () -> assertThat(thrown.errors()).containsExactly("Horse 1: Gender of the mother is not Female!"),
+        () -> assertThat(horseService.allHorses().toList().size()).isEqualTo(10)
+    );
+  }
+
   @Test
   @DisplayName("should throw validation exception when a horse is created "
           + "with name null, empty description and date of birth in the future")
@@ -1,6 +1,8 @@
 package at.ac.tuwien.sepm.assignment.individual.service;
 
+import at.ac.tuwien.sepm.assignment.individual.StatementCounter;
 import at.ac.tuwien.sepm.assignment.individual.dto.OwnerCreateDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.OwnerDto;
 import at.ac.tuwien.sepm.assignment.individual.exception.ConflictException;
 import at.ac.tuwien.sepm.assignment.individual.exception.ValidationException;
 import at.ac.tuwien.sepm.assignment.individual.persistence.DataGeneratorBean;
@@ -8,8 +10,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -18,11 +28,15 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ActiveProfiles({"test", "datagen"})
 @SpringBootTest
+@Import(StatementCounter.class)
 public class OwnerServiceTest {
 
   @Autowired
   OwnerService ownerService;
 
+  @Autowired
+  StatementCounter statementCounter;
+
   @Autowired
   DataGeneratorBean dataGeneratorBean;
 
@@ -61,4 +75,80 @@ public class OwnerServiceTest {
     assertThat(thrown.getMessage()).contains("Email of the owner must be unique");
   }
 
+  @Test
+  public void shouldThrowConflictExceptionWhenEmailDiffersOnlyInCase() {
+    // given the current state of db
+    // when
+    OwnerCreateDto owner = new OwnerCreateDto("Owner", "Test", "Owner@Test.com");
+
+    // then
+    ConflictException thrown = assertThrows(ConflictException.class, () -> ownerService.create(owner));
+    assertThat(thrown.errors()).containsExactly("Email of the owner must be unique");
+  }
+
+  @Test
+  public void ownerIsCreatedInOneStatement() throws Exception {
+    // given the current state of db
+    statementCounter.reset();
+
+    // when
+    OwnerDto owner = ownerService.create(new OwnerCreateDto("New", "Owner", "new@owner.com"));
+
+    // then
+    assertAll(
+            () -> assertThat(statementCounter.count()).isEqualTo(1),
+            () -> assertThat(owner.email()).isEqualTo("new@owner.com")
+    );
+  }
+
+  @Test
+  public void onlyOneOfConcurrentCreatesWithTheSameEmailSucceeds() throws Exception {
+    // given
+    int creators = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(creators);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Boolean>> results = new ArrayList<>();
+    for (int i = 0; i < creators; i++) {
+      results.add(executor.submit(() -> {
+        start.await();
+        try {
+          ownerService.create(new OwnerCreateDto("Concurrent", "Owner", "concurrent@owner.com"));
+          return true;
+        } catch (ConflictException e) {
+          return false;
+        }
+      }));
+    }
+
+    // when
+    start.countDown();
+    int created = 0;
+    for (Future<Boolean> result : results) {
+      if (result.get()) {
+        created++;
+      }
+    }
+    executor.shutdown();
+
+    // then
+    assertThat(created).isEqualTo(1);
+  }
+
+  @Test
+  public void cachedOwnersAreReturnedWithoutStatements() throws Exception {
+    // given
+    ownerService.getAllById(List.of(-1L, -2L));
+    statementCounter.reset();
+
+    // when
+    OwnerDto owner = ownerService.getById(-1);
+    Map<Long, OwnerDto> owners = ownerService.getAllById(List.of(-1L, -2L));
+
+    // then
+    assertAll(
+            () -> assertThat(statementCounter.count()).isEqualTo(0),
+            () -> assertThat(owner.firstName()).isEqualTo("Uncle"),
+            () -> assertThat(owners).containsOnlyKeys(-1L, -2L)
+    );
+  }
 }
@@ -0,0 +1,79 @@
+package at.ac.tuwien.sepm.assignment.individual.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseFamilyTreeDto;
+import at.ac.tuwien.sepm.assignment.individual.type.Sex;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FamilyTreeCacheTest {
+
+  private FamilyTreeCache cache;
+
+  @BeforeEach
+  public void setup() {
+    cache = new FamilyTreeCache(10);
+    // -5 is the child of -4 and -3, -3 is the child of -1 and -2
+    cache.put(-5L, 3, tree(-5L), List.of(-5L, -4L, -3L, -1L, -2L), cache.version());
+    cache.put(-5L, 2, tree(-5L), List.of(-5L, -4L, -3L), cache.version());
+    cache.put(-3L, 2, tree(-3L), List.of(-3L, -1L, -2L), cache.version());
+  }
+
+  @Test
+  public void changedAncestorInvalidatesOnlyTreesContainingIt() {
+    // given the trees of setup
+    // when
+    cache.invalidate(-1L);
+
+    // then
+    assertThat(cache.get(-5L, 3)).isNull();
+    assertThat(cache.get(-3L, 2)).isNull();
+    assertThat(cache.get(-5L, 2)).isNotNull();
+  }
+
+  @Test
+  public void changedRootInvalidatesItsTrees() {
+    // given the trees of setup
+    // when
+    cache.invalidate(-5L);
+
+    // then
+    assertThat(cache.get(-5L, 3)).isNull();
+    assertThat(cache.get(-5L, 2)).isNull();
+    assertThat(cache.get(-3L, 2)).isNotNull();
+  }
+
+  @Test
+  public void treeReadBeforeAnInvalidationIsNotCached() {
+    // given
+    long version = cache.version();
+    cache.invalidate(-10L);
+
+    // when
+    cache.put(-4L, 1, tree(-4L), List.of(-4L), version);
+
+    // then
+    assertThat(cache.get(-4L, 1)).isNull();
+  }
+
+  @Test
+  public void evictedTreeIsNoLongerLinkedToItsHorses() {
+    // given
+    FamilyTreeCache small = new FamilyTreeCache(1);
+    small.put(-3L, 2, tree(-3L), List.of(-3L, -1L, -2L), small.version());
+    small.put(-4L, 1, tree(-4L), List.of(-4L), small.version());
+
+    // when
+    small.invalidate(-1L);
+
+    // then
+    assertThat(small.get(-3L, 2)).isNull();
+    assertThat(small.get(-4L, 1)).isNotNull();
+  }
+
+  private static HorseFamilyTreeDto tree(long id) {
+    return new HorseFamilyTreeDto(id, "Horse " + id, LocalDate.of(2000, 1, 1), Sex.MALE, null, null);
+  }
+}
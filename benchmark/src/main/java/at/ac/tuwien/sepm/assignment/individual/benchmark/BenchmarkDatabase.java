@@ -0,0 +1,179 @@
+package at.ac.tuwien.sepm.assignment.individual.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Creates and seeds the in-memory H2 databases the benchmarks run against.
+ */
+public final class BenchmarkDatabase {
+  private static final String SQL_INSERT_HORSE = "INSERT INTO horse"
+      + " (id, name, description, date_of_birth, sex, owner_id, mother_id, father_id)"
+      + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final String SQL_INSERT_OWNER = "INSERT INTO owner (id, first_name, last_name) VALUES (?, ?, ?)";
+  private static final int INSERT_CHUNK_SIZE = 10_000;
+
+  /**
+   * Connection URL setting, that runs the schema scripts on every connect,
+   * the way the backend created its schema before it was migrated by flyway.
+   */
+  static final String INIT_SCHEMA_SCRIPTS = "INIT="
+      + "RUNSCRIPT FROM 'classpath:db/migration/V1__create_schema.sql'\\;"
+      + "RUNSCRIPT FROM 'classpath:db/migration/V2__add_horse_indexes.sql'\\;"
+      + "RUNSCRIPT FROM 'classpath:db/migration/V3__add_normalized_name_columns.sql'";
+
+  /**
+   * Word, that occurs in the description of exactly {@link #RARE_WORD_COUNT} horses inserted by {@link #seedDescribedHorses}.
+   */
+  static final String RARE_WORD = "comet";
+  static final int RARE_WORD_COUNT = 10;
+  private static final String[] COMMON_WORDS = {
+      "brown", "white", "black", "fast", "calm", "strong", "young", "old", "jumper", "racer",
+      "gentle", "proud", "mare", "stallion", "champion", "trotter", "pony", "wild", "loyal", "tall"
+  };
+
+  /**
+   * Last name of exactly {@link #RARE_OWNER_NAME_COUNT} owners inserted by {@link #seedOwners}.
+   */
+  static final String RARE_OWNER_NAME = "Quill";
+  static final int RARE_OWNER_NAME_COUNT = 10;
+  private static final String[] FIRST_NAMES = {
+      "Anna", "Ben", "Clara", "David", "Emma", "Felix", "Greta", "Hannes", "Ida", "Jakob",
+      "Klara", "Lukas", "Marie", "Noah", "Olivia", "Paul", "Rosa", "Simon", "Theresa", "Valentin"
+  };
+  private static final String[] LAST_NAMES = {
+      "Bauer", "Berger", "Fischer", "Gruber", "Hofer", "Huber", "Koller", "Lehner", "Mayer", "Moser",
+      "Pichler", "Schmid", "Steiner", "Wagner", "Weber", "Wieser", "Winkler", "Wolf", "Leitner", "Eder"
+  };
+
+  private BenchmarkDatabase() {
+  }
+
+  /**
+   * Create a new, empty in-memory database with the schema of the backend.
+   * Every call returns a separate database.
+   *
+   * @return the data source of the new database
+   */
+  public static DataSource create() {
+    var dataSource = new SingleConnectionDataSource("jdbc:h2:mem:benchmark-" + UUID.randomUUID(), "sa", "", true);
+    Flyway.configure().dataSource(dataSource).load().migrate();
+    return dataSource;
+  }
+
+  /**
+   * Insert a pedigree that is {@code depth} generations deep.
+   * Every generation consists of a mare and a stallion. The mare is the daughter of
+   * the mare and the stallion of the next older generation, the stallions have no parents.
+   * So the ancestry of the youngest mare contains two horses per generation, without any shared ancestors.
+   *
+   * @param jdbcTemplate the template to insert the horses with
+   * @param depth the number of generations of the pedigree
+   * @return the ID of the youngest mare, whose ancestry is {@code depth} generations deep
+   */
+  public static long seedPedigree(JdbcTemplate jdbcTemplate, int depth) {
+    List<Object[]> rows = new ArrayList<>(2 * depth);
+    // parents have to be inserted before their children, so start with the oldest generation
+    for (int generation = depth - 1; generation >= 0; generation--) {
+      var dateOfBirth = LocalDate.of(2020, 1, 1).minusYears(5L * generation);
+      Long motherId = generation == depth - 1 ? null : mareId(generation + 1);
+      Long fatherId = generation == depth - 1 ? null : stallionId(generation + 1);
+      rows.add(new Object[] {mareId(generation), "Mare " + generation, null, dateOfBirth, "FEMALE", null, motherId, fatherId});
+      rows.add(new Object[] {stallionId(generation), "Stallion " + generation, null, dateOfBirth, "MALE", null, null, null});
+    }
+    jdbcTemplate.batchUpdate(SQL_INSERT_HORSE, rows);
+    return mareId(0);
+  }
+
+  /**
+   * Insert {@code count} horses without parents, whose descriptions consist of a few common words.
+   * Independent of {@code count}, exactly {@link #RARE_WORD_COUNT} of the horses also contain {@link #RARE_WORD}.
+   *
+   * @param jdbcTemplate the template to insert the horses with
+   * @param count the number of horses to insert
+   */
+  public static void seedDescribedHorses(JdbcTemplate jdbcTemplate, int count) {
+    var random = new Random(42);
+    List<Object[]> rows = new ArrayList<>(count);
+    for (int i = 1; i <= count; i++) {
+      var description = new StringBuilder();
+      for (int word = 0; word < 8; word++) {
+        description.append(COMMON_WORDS[random.nextInt(COMMON_WORDS.length)]).append(' ');
+      }
+      if (i % (count / RARE_WORD_COUNT) == 0) {
+        description.append(RARE_WORD);
+      }
+      var sex = i % 2 == 0 ? "MALE" : "FEMALE";
+      rows.add(new Object[] {(long) i, "Horse " + i, description.toString(), LocalDate.of(2000, 1, 1), sex, null, null, null});
+    }
+    jdbcTemplate.batchUpdate(SQL_INSERT_HORSE, rows);
+  }
+
+  /**
+   * Insert {@code count} owners without email, whose names are combined from common first and last names.
+   * Independent of {@code count}, exactly {@link #RARE_OWNER_NAME_COUNT} of the owners have {@link #RARE_OWNER_NAME} as last name.
+   *
+   * @param jdbcTemplate the template to insert the owners with
+   * @param count the number of owners to insert
+   */
+  public static void seedOwners(JdbcTemplate jdbcTemplate, int count) {
+    var random = new Random(42);
+    List<Object[]> rows = new ArrayList<>(INSERT_CHUNK_SIZE);
+    for (int i = 1; i <= count; i++) {
+      var lastName = i % (count / RARE_OWNER_NAME_COUNT) == 0
+          ? RARE_OWNER_NAME
+          : LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+      rows.add(new Object[] {(long) i, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], lastName});
+      if (rows.size() == INSERT_CHUNK_SIZE || i == count) {
+        jdbcTemplate.batchUpdate(SQL_INSERT_OWNER, rows);
+        rows.clear();
+      }
+    }
+  }
+
+  /**
+   * Insert {@code count / 10} owners like {@link #seedOwners}, and {@code count} horses without parents, each owned by one of them.
+   * The names of the horses start with one of twenty words, and their descriptions consist of a few common words,
+   * so that every filter of the horse search matches a part of the horses.
+   * The horses are born between 2000 and 2020.
+   *
+   * @param jdbcTemplate the template to insert the owners and horses with
+   * @param count the number of horses to insert, at least 100
+   */
+  public static void seedHorsesWithOwners(JdbcTemplate jdbcTemplate, int count) {
+    int ownerCount = count / 10;
+    seedOwners(jdbcTemplate, ownerCount);
+    var random = new Random(42);
+    List<Object[]> rows = new ArrayList<>(INSERT_CHUNK_SIZE);
+    for (int i = 1; i <= count; i++) {
+      var name = COMMON_WORDS[random.nextInt(COMMON_WORDS.length)];
+      var description = new StringBuilder();
+      for (int word = 0; word < 8; word++) {
+        description.append(COMMON_WORDS[random.nextInt(COMMON_WORDS.length)]).append(' ');
+      }
+      var dateOfBirth = LocalDate.of(2000, 1, 1).plusDays(random.nextInt(20 * 365));
+      var sex = i % 2 == 0 ? "MALE" : "FEMALE";
+      long ownerId = 1 + random.nextInt(ownerCount);
+      rows.add(new Object[] {(long) i, name + " " + i, description.toString().trim(), dateOfBirth, sex, ownerId, null, null});
+      if (rows.size() == INSERT_CHUNK_SIZE || i == count) {
+        jdbcTemplate.batchUpdate(SQL_INSERT_HORSE, rows);
+        rows.clear();
+      }
+    }
+  }
+
+  private static long mareId(int generation) {
+    return 2L * generation + 1;
+  }
+
+  private static long stallionId(int generation) {
+    return 2L * generation + 2;
+  }
+}
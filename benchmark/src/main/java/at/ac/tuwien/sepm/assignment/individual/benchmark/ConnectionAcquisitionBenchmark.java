@@ -0,0 +1,63 @@
+package at.ac.tuwien.sepm.assignment.individual.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of opening a new physical connection to a database, that already has the current schema.
+ * This is what the connection pool pays for every connection while warming up, and on every reconnect.
+ * With {@code initScript} the schema scripts are run by the {@code INIT} of the connection URL on every connect,
+ * as the backend did before the migrations; with {@code migrations} the schema was migrated once up front.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectionAcquisitionBenchmark {
+  @Param({"initScript", "migrations"})
+  String schemaSetup;
+
+  private String url;
+  private Connection keepAlive;
+
+  @Setup
+  public void setup() throws SQLException {
+    String database = "jdbc:h2:mem:connections-" + UUID.randomUUID();
+    // the in-memory database is dropped with its last connection, so one connection is kept open
+    keepAlive = DriverManager.getConnection(database, "sa", "");
+    Flyway.configure().dataSource(database, "sa", "").load().migrate();
+    url = "initScript".equals(schemaSetup)
+        ? database + ";" + BenchmarkDatabase.INIT_SCHEMA_SCRIPTS
+        : database;
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    keepAlive.close();
+  }
+
+  @Benchmark
+  public boolean openConnection() throws SQLException {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+      return connection.isValid(0);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package at.ac.tuwien.sepm.assignment.individual.benchmark;
+
+import at.ac.tuwien.sepm.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepm.assignment.individual.persistence.PedigreeIndex;
+import at.ac.tuwien.sepm.assignment.individual.type.Sex;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Checking whether a new parent would make a horse its own ancestor, using {@link PedigreeIndex#isAncestor}.
+ * The pedigree of the horse with ID 1 contains {@code pedigreeSize} horses, either as a {@code chain},
+ * where every horse has only a mother, or as a complete {@code binary} pedigree.
+ * Both benchmarks visit all ancestors: {@code noCycle} looks for an unrelated horse,
+ * {@code cycle} for the ancestor visited last.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class CycleCheckBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  int pedigreeSize;
+
+  @Param({"chain", "binary"})
+  String shape;
+
+  private final PedigreeIndex pedigreeIndex = new PedigreeIndex();
+  private long lastAncestorId;
+
+  @Setup
+  public void setup() {
+    boolean chain = shape.equals("chain");
+    List<Horse> horses = new ArrayList<>(pedigreeSize + 1);
+    for (long id = 1; id <= pedigreeSize; id++) {
+      // in a chain, the horse i has the horse i + 1 as mother;
+      // in a binary pedigree, it has the horse 2i as mother and 2i + 1 as father
+      long motherId = chain ? id + 1 : 2 * id;
+      long fatherId = 2 * id + 1;
+      horses.add(new Horse()
+          .setId(id)
+          .setName("Horse " + id)
+          .setDateOfBirth(LocalDate.of(2020, 1, 1).minusDays(id))
+          .setSex(id % 2 == 0 ? Sex.FEMALE : Sex.MALE)
+          .setMotherId(motherId <= pedigreeSize ? motherId : null)
+          .setFatherId(!chain && fatherId <= pedigreeSize ? fatherId : null));
+    }
+    horses.add(new Horse()
+        .setId(0L)
+        .setName("Unrelated")
+        .setDateOfBirth(LocalDate.of(2020, 1, 1))
+        .setSex(Sex.MALE));
+    pedigreeIndex.rebuild(horses);
+    // the walk goes depth first along the fathers, so the last horse reached is the deepest mother of the root
+    long id = 1;
+    while (2 * id <= pedigreeSize || (chain && id < pedigreeSize)) {
+      id = chain ? id + 1 : 2 * id;
+    }
+    lastAncestorId = id;
+  }
+
+  @Benchmark
+  public boolean noCycle() {
+    return pedigreeIndex.isAncestor(0, 1);
+  }
+
+  @Benchmark
+  public boolean cycle() {
+    return pedigreeIndex.isAncestor(lastAncestorId, 1);
+  }
+}
@@ -0,0 +1,92 @@
+package at.ac.tuwien.sepm.assignment.individual.benchmark;
+
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseFamilyTreeDto;
+import at.ac.tuwien.sepm.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepm.assignment.individual.mapper.HorseMapper;
+import at.ac.tuwien.sepm.assignment.individual.type.Sex;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Assembling a {@link HorseFamilyTreeDto} from the list of horses in the family tree.
+ * Compares {@link HorseMapper#entitiesToFamilyTreeDto} with the recursive builder it replaced,
+ * which scanned the whole list for the parents of every horse.
+ * The family tree is a complete binary pedigree with {@code familySize} horses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class FamilyTreeAssemblyBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  int familySize;
+
+  private final HorseMapper mapper = new HorseMapper();
+  private List<Horse> family;
+
+  @Setup
+  public void setup() {
+    family = new ArrayList<>(familySize);
+    for (int i = 0; i < familySize; i++) {
+      // the horse i has the horse 2i + 1 as mother and 2i + 2 as father, IDs start at 1
+      long motherId = 2L * i + 2;
+      long fatherId = 2L * i + 3;
+      family.add(new Horse()
+          .setId(i + 1L)
+          .setName("Horse " + i)
+          .setDateOfBirth(LocalDate.of(2020, 1, 1))
+          .setSex(i % 2 == 0 ? Sex.MALE : Sex.FEMALE)
+          .setMotherId(motherId <= familySize ? motherId : null)
+          .setFatherId(fatherId <= familySize ? fatherId : null));
+    }
+  }
+
+  @Benchmark
+  public HorseFamilyTreeDto idIndexed() {
+    return mapper.entitiesToFamilyTreeDto(family, 1L);
+  }
+
+  @Benchmark
+  public HorseFamilyTreeDto linearScan() {
+    return buildFamilyTreeDto(family.get(0), family);
+  }
+
+  /**
+   * The previous builder of {@code HorseServiceImpl}, which looks up the parents of every horse by scanning the list.
+   */
+  private static HorseFamilyTreeDto buildFamilyTreeDto(Horse horse, List<Horse> familyList) {
+    if (horse != null) {
+      Horse mother = null;
+      Horse father = null;
+
+      for (Horse h : familyList) {
+        if (h.getId().equals(horse.getMotherId())) {
+          mother = h;
+        }
+        if (h.getId().equals(horse.getFatherId())) {
+          father = h;
+        }
+      }
+      return new HorseFamilyTreeDto(horse.getId(), horse.getName(), horse.getDateOfBirth(), horse.getSex(),
+          buildFamilyTreeDto(mother, familyList), buildFamilyTreeDto(father, familyList));
+    } else {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package at.ac.tuwien.sepm.assignment.individual.benchmark;
+
+import at.ac.tuwien.sepm.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepm.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepm.assignment.individual.persistence.HorseTextIndex;
+import at.ac.tuwien.sepm.assignment.individual.persistence.PedigreeIndex;
+import at.ac.tuwien.sepm.assignment.individual.persistence.impl.HorseJdbcDao;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Latency of fetching the first {@code generations} generations of a family tree,
+ * depending on how deep the whole pedigree of the horse is.
+ * The depth-bounded query of {@link HorseJdbcDao#getFamilyTree} should stay flat,
+ * while the unbounded query, which filters the generations only after the recursion,
+ * grows with the depth of the pedigree. {@link PedigreeIndex#getFamilyTree} resolves the same
+ * family tree in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FamilyTreeBenchmark {
+  private static final String SQL_FAMILY_TREE_UNBOUNDED = "WITH RECURSIVE"
+      + " tmp(id, name, date_of_birth, sex, mother_id, father_id, generation)"
+      + " AS ("
+      + " SELECT id, name, date_of_birth, sex, mother_id, father_id, 1 FROM horse WHERE id = ?"
+      + " UNION"
+      + " SELECT h.id, h.name, h.date_of_birth, h.sex, h.mother_id, h.father_id, tmp.generation + 1"
+      + " FROM horse h JOIN tmp ON tmp.mother_id = h.id OR tmp.father_id = h.id)"
+      + " SELECT id, name, date_of_birth, sex, mother_id, father_id, generation FROM tmp WHERE generation <= ?";
+
+  @Param({"8", "128", "512"})
+  int pedigreeDepth;
+
+  @Param({"3", "10"})
+  int generations;
+
+  private JdbcTemplate jdbcTemplate;
+  private HorseJdbcDao dao;
+  private PedigreeIndex pedigreeIndex;
+  private long rootId;
+
+  @Setup
+  public void setup() {
+    jdbcTemplate = new JdbcTemplate(BenchmarkDatabase.create());
+    pedigreeIndex = new PedigreeIndex();
+    dao = new HorseJdbcDao(jdbcTemplate, pedigreeIndex, new HorseTextIndex(), List.of(), 500);
+    rootId = BenchmarkDatabase.seedPedigree(jdbcTemplate, pedigreeDepth);
+    dao.loadIndexes();
+  }
+
+  @Benchmark
+  public List<Horse> depthBounded() throws NotFoundException {
+    return dao.getFamilyTree(rootId, generations);
+  }
+
+  @Benchmark
+  public List<Horse> inMemory() throws NotFoundException {
+    return pedigreeIndex.getFamilyTree(rootId, generations);
+  }
+
+  @Benchmark
+  public List<Long> unbounded() {
+    return jdbcTemplate.query(SQL_FAMILY_TREE_UNBOUNDED, (rs, rowNum) -> rs.getLong("id"), rootId, generations);
+  }
+}
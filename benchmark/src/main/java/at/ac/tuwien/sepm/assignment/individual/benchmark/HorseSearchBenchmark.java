@@ -0,0 +1,76 @@
+package at.ac.tuwien.sepm.assignment.individual.benchmark;
+
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseListDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseSearchDto;
+import at.ac.tuwien.sepm.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepm.assignment.individual.persistence.HorseTextIndex;
+import at.ac.tuwien.sepm.assignment.individual.persistence.PedigreeIndex;
+import at.ac.tuwien.sepm.assignment.individual.persistence.impl.HorseJdbcDao;
+import at.ac.tuwien.sepm.assignment.individual.type.Sex;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Latency of a page of the horse search, for every combination of its filters.
+ * The bits of {@code filters} select the filters of the search: 1 name, 2 description,
+ * 4 born before, 8 sex and 16 owner name, so the values 0 to 31 cover all shapes of the search query.
+ * Each filter on its own matches between a twentieth and a half of the horses seeded by
+ * {@link BenchmarkDatabase#seedHorsesWithOwners}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class HorseSearchBenchmark {
+  private static final int PAGE_SIZE = 20;
+
+  @Param({"10000", "100000"})
+  int horseCount;
+
+  @Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15",
+      "16", "17", "18", "19", "20", "21", "22", "23", "24", "25", "26", "27", "28", "29", "30", "31"})
+  int filters;
+
+  private HorseJdbcDao dao;
+  private HorseSearchDto search;
+
+  @Setup
+  public void setup() {
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(BenchmarkDatabase.create());
+    BenchmarkDatabase.seedHorsesWithOwners(jdbcTemplate, horseCount);
+    jdbcTemplate.execute("ANALYZE");
+    dao = new HorseJdbcDao(jdbcTemplate, new PedigreeIndex(), new HorseTextIndex(), List.of(), 500);
+    search = new HorseSearchDto(
+        (filters & 1) != 0 ? "calm" : null,
+        (filters & 2) != 0 ? "jumper" : null,
+        (filters & 4) != 0 ? LocalDate.of(2010, 1, 1) : null,
+        (filters & 8) != 0 ? Sex.FEMALE : null,
+        (filters & 16) != 0 ? "huber" : null,
+        PAGE_SIZE, null, null);
+  }
+
+  @Benchmark
+  public List<Horse> searchHorses() {
+    return dao.searchHorses(search);
+  }
+
+  @Benchmark
+  public List<HorseListDto> searchHorsesWithOwner() {
+    return dao.searchHorsesWithOwner(search);
+  }
+}
@@ -0,0 +1,72 @@
+package at.ac.tuwien.sepm.assignment.individual.benchmark;
+
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseListDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.OwnerDto;
+import at.ac.tuwien.sepm.assignment.individual.entity.Horse;
+import at.ac.tuwien.sepm.assignment.individual.mapper.HorseMapper;
+import at.ac.tuwien.sepm.assignment.individual.type.Sex;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Converting a list of {@code horseCount} horses to {@link HorseListDto}s with {@link HorseMapper#entityToListDto},
+ * the way a search result is converted. Every tenth horse has no owner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ListMappingBenchmark {
+
+  @Param({"20", "1000", "100000"})
+  int horseCount;
+
+  private final HorseMapper mapper = new HorseMapper();
+  private List<Horse> horses;
+  private Map<Long, OwnerDto> owners;
+
+  @Setup
+  public void setup() {
+    horses = new ArrayList<>(horseCount);
+    owners = new HashMap<>();
+    for (long id = 1; id <= horseCount; id++) {
+      Long ownerId = id % 10 == 0 ? null : id % 100;
+      if (ownerId != null) {
+        owners.putIfAbsent(ownerId, new OwnerDto(ownerId, "First " + ownerId, "Last " + ownerId, null));
+      }
+      horses.add(new Horse()
+          .setId(id)
+          .setName("Horse " + id)
+          .setDescription("Description of horse " + id)
+          .setDateOfBirth(LocalDate.of(2020, 1, 1))
+          .setSex(id % 2 == 0 ? Sex.MALE : Sex.FEMALE)
+          .setOwnerId(ownerId));
+    }
+  }
+
+  @Benchmark
+  public List<HorseListDto> entityToListDto() {
+    List<HorseListDto> dtos = new ArrayList<>(horses.size());
+    for (Horse horse : horses) {
+      dtos.add(mapper.entityToListDto(horse, owners));
+    }
+    return dtos;
+  }
+}
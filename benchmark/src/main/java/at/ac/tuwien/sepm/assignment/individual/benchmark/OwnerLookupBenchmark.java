@@ -0,0 +1,76 @@
+package at.ac.tuwien.sepm.assignment.individual.benchmark;
+
+import at.ac.tuwien.sepm.assignment.individual.dto.OwnerDto;
+import at.ac.tuwien.sepm.assignment.individual.exception.NotFoundException;
+import at.ac.tuwien.sepm.assignment.individual.mapper.OwnerMapper;
+import at.ac.tuwien.sepm.assignment.individual.persistence.OwnerCache;
+import at.ac.tuwien.sepm.assignment.individual.persistence.OwnerNameIndex;
+import at.ac.tuwien.sepm.assignment.individual.persistence.impl.OwnerJdbcDao;
+import at.ac.tuwien.sepm.assignment.individual.service.impl.OwnerServiceImpl;
+import at.ac.tuwien.sepm.assignment.individual.service.impl.OwnerValidator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Latency of {@link OwnerServiceImpl#getAllById} for the owners of a page of horses.
+ * {@code cached} uses the {@link OwnerCache} of the backend, which holds all owners after the warmup,
+ * {@code uncached} a cache without capacity, so that every lookup queries the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class OwnerLookupBenchmark {
+
+  @Param({"10000", "100000"})
+  int ownerCount;
+
+  @Param({"20", "1000"})
+  int lookupSize;
+
+  private OwnerServiceImpl cachedService;
+  private OwnerServiceImpl uncachedService;
+  private List<Long> ids;
+
+  @Setup
+  public void setup() {
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(BenchmarkDatabase.create());
+    BenchmarkDatabase.seedOwners(jdbcTemplate, ownerCount);
+    cachedService = service(jdbcTemplate, new OwnerCache(ownerCount));
+    uncachedService = service(jdbcTemplate, new OwnerCache(0));
+    ids = new Random(42).longs(lookupSize, 1, ownerCount + 1).boxed().collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public Map<Long, OwnerDto> cached() throws NotFoundException {
+    return cachedService.getAllById(ids);
+  }
+
+  @Benchmark
+  public Map<Long, OwnerDto> uncached() throws NotFoundException {
+    return uncachedService.getAllById(ids);
+  }
+
+  private static OwnerServiceImpl service(JdbcTemplate jdbcTemplate, OwnerCache cache) {
+    var dao = new OwnerJdbcDao(jdbcTemplate, new NamedParameterJdbcTemplate(jdbcTemplate), new OwnerNameIndex(), cache);
+    return new OwnerServiceImpl(dao, new OwnerMapper(), new OwnerValidator());
+  }
+}
@@ -0,0 +1,74 @@
+package at.ac.tuwien.sepm.assignment.individual.benchmark;
+
+import at.ac.tuwien.sepm.assignment.individual.dto.OwnerSearchDto;
+import at.ac.tuwien.sepm.assignment.individual.entity.Owner;
+import at.ac.tuwien.sepm.assignment.individual.persistence.OwnerCache;
+import at.ac.tuwien.sepm.assignment.individual.persistence.OwnerNameIndex;
+import at.ac.tuwien.sepm.assignment.individual.persistence.impl.OwnerJdbcDao;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Latency of the owner autocomplete, depending on how many owners are stored.
+ * {@code common} matches a large part of the owners, so the search ends as soon as the page is full,
+ * {@code rare} matches the same few owners at every size, so every candidate has to be looked at.
+ * The {@code LIKE} query, that the DAO used before the {@link OwnerNameIndex}, scans and upper-cases every name in both cases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class OwnerSearchBenchmark {
+  private static final int MAX_AMOUNT = 5;
+  private static final String SQL_SUBSTRING_SEARCH = "SELECT * FROM owner"
+      + " WHERE UPPER(first_name||' '||last_name) like UPPER('%'||COALESCE(?, '')||'%') LIMIT ?";
+  private static final Map<String, String> QUERIES = Map.of(
+      "common", "na h",
+      "rare", BenchmarkDatabase.RARE_OWNER_NAME.substring(0, 4));
+
+  @Param({"10000", "100000", "1000000"})
+  int ownerCount;
+
+  @Param({"common", "rare"})
+  String query;
+
+  private JdbcTemplate jdbcTemplate;
+  private OwnerJdbcDao dao;
+  private String name;
+
+  @Setup
+  public void setup() {
+    jdbcTemplate = new JdbcTemplate(BenchmarkDatabase.create());
+    dao = new OwnerJdbcDao(jdbcTemplate, new NamedParameterJdbcTemplate(jdbcTemplate), new OwnerNameIndex(), new OwnerCache(10_000));
+    BenchmarkDatabase.seedOwners(jdbcTemplate, ownerCount);
+    dao.loadIndex();
+    name = QUERIES.get(query);
+  }
+
+  @Benchmark
+  public List<Map<String, Object>> substringSearch() {
+    return jdbcTemplate.queryForList(SQL_SUBSTRING_SEARCH, name, MAX_AMOUNT);
+  }
+
+  @Benchmark
+  public Collection<Owner> nameIndex() {
+    return dao.search(new OwnerSearchDto(name, MAX_AMOUNT, null));
+  }
+}
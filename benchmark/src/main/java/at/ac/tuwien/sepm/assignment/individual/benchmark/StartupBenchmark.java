@@ -0,0 +1,64 @@
+package at.ac.tuwien.sepm.assignment.individual.benchmark;
+
+import at.ac.tuwien.sepm.assignment.individual.SepmIndividualAssignmentApplication;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Time from starting the backend until the first {@code GET /horses} is answered, on a new database.
+ * With {@code initScript} the schema is created by the {@code INIT} of the connection URL,
+ * so that every connection the pool opens runs the schema scripts;
+ * with {@code migrations} the schema is migrated once on startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(3)
+public class StartupBenchmark {
+  @Param({"initScript", "migrations"})
+  String schemaSetup;
+
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+
+  @Benchmark
+  public int firstRequest() throws IOException, InterruptedException {
+    String database = "jdbc:h2:mem:startup-" + UUID.randomUUID();
+    boolean initScript = "initScript".equals(schemaSetup);
+    try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SepmIndividualAssignmentApplication.class)
+        // passed as map, as the "key=value" strings would be parsed like a properties file, dropping the escape of the URL
+        .properties(Map.of(
+            "server.port", 0,
+            "spring.datasource.url", initScript ? database + ";" + BenchmarkDatabase.INIT_SCHEMA_SCRIPTS : database,
+            "spring.flyway.enabled", !initScript))
+        .run()) {
+      String port = context.getEnvironment().getProperty("local.server.port");
+      HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/horses")).build();
+      int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+      // a failed request is answered faster than a successful one, and must not be measured as startup time
+      if (status != 200) {
+        throw new IllegalStateException("GET /horses answered with status " + status);
+      }
+      return status;
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package at.ac.tuwien.sepm.assignment.individual.benchmark;
+
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseListDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseSearchDto;
+import at.ac.tuwien.sepm.assignment.individual.persistence.HorseTextIndex;
+import at.ac.tuwien.sepm.assignment.individual.persistence.PedigreeIndex;
+import at.ac.tuwien.sepm.assignment.individual.persistence.impl.HorseJdbcDao;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Latency of searching a word in the descriptions of the horses, depending on how many horses are stored.
+ * The word occurs in the same number of horses at every size. The substring search of the DAO
+ * has to upper-case and scan every description, the {@link HorseTextIndex} only visits the matching horses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextSearchBenchmark {
+  private static final int MAX_AMOUNT = 20;
+
+  @Param({"1000", "10000", "100000"})
+  int horseCount;
+
+  private HorseJdbcDao dao;
+  private HorseTextIndex textIndex;
+
+  @Setup
+  public void setup() {
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(BenchmarkDatabase.create());
+    textIndex = new HorseTextIndex();
+    dao = new HorseJdbcDao(jdbcTemplate, new PedigreeIndex(), textIndex, List.of(), 500);
+    BenchmarkDatabase.seedDescribedHorses(jdbcTemplate, horseCount);
+    dao.loadIndexes();
+  }
+
+  @Benchmark
+  public List<HorseListDto> substringSearch() {
+    return dao.searchHorsesWithOwner(new HorseSearchDto(null, BenchmarkDatabase.RARE_WORD, null, null, null, MAX_AMOUNT, null, null));
+  }
+
+  @Benchmark
+  public List<HorseListDto> textIndex() {
+    var ids = textIndex.search(BenchmarkDatabase.RARE_WORD, MAX_AMOUNT).stream()
+        .map(HorseTextIndex.Match::id)
+        .toList();
+    return dao.getListByIds(ids);
+  }
+}
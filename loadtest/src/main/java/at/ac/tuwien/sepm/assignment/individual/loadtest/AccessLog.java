@@ -0,0 +1,116 @@
+package at.ac.tuwien.sepm.assignment.individual.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the requests, that the {@code LogFilter} of the backend logged, from its log file.
+ * <p>
+ * The filter logs a {@code >>>} line when a request arrives and a {@code <<<} line with status and time when it is answered,
+ * both with the request ID {@code r} of the log pattern. The lines of a request are matched by that ID,
+ * as other requests may be logged in between. If the {@code >>>} line is missing, the arrival is calculated
+ * from the {@code <<<} line. Other lines, like those of stack traces, are skipped.
+ * </p>
+ */
+final class AccessLog {
+
+  // e.g. "2023-03-20T10:15:30.123+01:00 r=1a2b3c4d5e6f ip=127.0.0.1  INFO 4711 --- [exec-1] ...LogFilter : <<< GET /horses"
+  private static final Pattern LINE = Pattern.compile("^(\\S+) r=(\\S*) ip=\\S*\\s+\\w+ .*? : (>>>|<<<) (\\S+) (\\S+)(.*)$");
+  private static final Pattern STATUS = Pattern.compile(" status=(\\d+)");
+  private static final Pattern TIME = Pattern.compile(" time=([0-9.]+)ms");
+
+  /**
+   * A logged request.
+   *
+   * @param arrival the time the request arrived, in nanoseconds since the first request of the log
+   * @param method the HTTP method
+   * @param uri the path and query string
+   * @param status the status of the response
+   * @param millis the time the backend took to answer the request, in milliseconds
+   */
+  record Request(long arrival, String method, String uri, int status, double millis) {
+
+    /**
+     * The endpoint the request was sent to: its method and path, with the IDs and numbers in the path replaced.
+     */
+    String endpoint() {
+      int query = uri.indexOf('?');
+      String path = query < 0 ? uri : uri.substring(0, query);
+      return method + " " + path.replaceAll("/-?\\d+(?=/|$)", "/{n}");
+    }
+  }
+
+  private AccessLog() {
+  }
+
+  /**
+   * Read the answered requests of the log, ordered by their arrival.
+   *
+   * @param log the log file
+   * @return the requests
+   * @throws IOException if the log could not be read
+   */
+  static List<Request> read(Path log) throws IOException {
+    Map<String, OffsetDateTime> arrivals = new HashMap<>();
+    List<Request> requests = new ArrayList<>();
+    List<OffsetDateTime> times = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(log)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        Matcher matcher = LINE.matcher(line);
+        if (!matcher.matches()) {
+          continue;
+        }
+        OffsetDateTime time;
+        try {
+          time = OffsetDateTime.parse(matcher.group(1));
+        } catch (DateTimeParseException e) {
+          continue;
+        }
+        String requestId = matcher.group(2);
+        if (matcher.group(3).equals(">>>")) {
+          if (!requestId.isEmpty()) {
+            arrivals.put(requestId, time);
+          }
+          continue;
+        }
+        Matcher status = STATUS.matcher(matcher.group(6));
+        Matcher millis = TIME.matcher(matcher.group(6));
+        if (!status.find() || !millis.find()) {
+          continue;
+        }
+        double duration = Double.parseDouble(millis.group(1));
+        OffsetDateTime arrival = arrivals.remove(requestId);
+        if (arrival == null) {
+          arrival = time.minusNanos((long) (duration * 1e6));
+        }
+        times.add(arrival);
+        requests.add(new Request(0, matcher.group(4), matcher.group(5), Integer.parseInt(status.group(1)), duration));
+      }
+    }
+    if (requests.isEmpty()) {
+      return requests;
+    }
+    OffsetDateTime first = times.stream().min(Comparator.naturalOrder()).orElseThrow();
+    List<Request> ordered = new ArrayList<>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      Request request = requests.get(i);
+      long arrival = Duration.between(first, times.get(i)).toNanos();
+      ordered.add(new Request(arrival, request.method(), request.uri(), request.status(), request.millis()));
+    }
+    ordered.sort(Comparator.comparingLong(Request::arrival));
+    return ordered;
+  }
+}
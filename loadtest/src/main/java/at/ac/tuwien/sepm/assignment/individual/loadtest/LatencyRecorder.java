@@ -0,0 +1,87 @@
+package at.ac.tuwien.sepm.assignment.individual.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Records the latencies of the measured calls of one operation.
+ * <p>
+ * Every latency is kept, so that the percentiles are exact. A load test of a few minutes
+ * at a few thousand requests per second needs some megabytes for that.
+ * </p>
+ */
+final class LatencyRecorder {
+
+  /**
+   * The results of one operation over the measured time.
+   *
+   * @param count the number of calls, that got a response
+   * @param errors the number of calls, that failed or got a response with an error status
+   * @param dropped the number of calls, that were due in the open-loop mode, but not sent,
+   *                because too many calls were pending
+   * @param throughput the number of calls per second, that got a response
+   * @param p50 the median latency in milliseconds
+   * @param p99 the 99th percentile of the latency in milliseconds
+   * @param p999 the 99.9th percentile of the latency in milliseconds
+   * @param max the maximum latency in milliseconds
+   */
+  record Summary(long count, long errors, long dropped, double throughput, double p50, double p99, double p999, double max) {
+  }
+
+  private long[] latencies = new long[1024];
+  private int count;
+  private long errors;
+  private long dropped;
+
+  /**
+   * Record a call, that got a response or failed.
+   *
+   * @param nanos the latency of the call
+   * @param success whether the call got a response with a success status
+   */
+  synchronized void record(long nanos, boolean success) {
+    if (count == latencies.length) {
+      latencies = Arrays.copyOf(latencies, 2 * count);
+    }
+    latencies[count++] = nanos;
+    if (!success) {
+      errors++;
+    }
+  }
+
+  synchronized void drop() {
+    dropped++;
+  }
+
+  /**
+   * Add the recorded calls to {@code total}, to summarize several operations together.
+   */
+  synchronized void addTo(LatencyRecorder total) {
+    synchronized (total) {
+      if (total.count + count > total.latencies.length) {
+        total.latencies = Arrays.copyOf(total.latencies, total.count + count);
+      }
+      System.arraycopy(latencies, 0, total.latencies, total.count, count);
+      total.count += count;
+      total.errors += errors;
+      total.dropped += dropped;
+    }
+  }
+
+  synchronized Summary summarize(Duration duration) {
+    long[] sorted = Arrays.copyOf(latencies, count);
+    Arrays.sort(sorted);
+    return new Summary(count, errors, dropped, count / (duration.toNanos() / 1e9),
+        percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999),
+        sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+  }
+
+  private static double percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    // nearest rank
+    int rank = (int) Math.ceil(percentile * sorted.length);
+    return sorted[Math.max(rank, 1) - 1] / 1e6;
+  }
+}
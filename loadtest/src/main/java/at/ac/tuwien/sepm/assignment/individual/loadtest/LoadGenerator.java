@@ -0,0 +1,157 @@
+package at.ac.tuwien.sepm.assignment.individual.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends the requests of a load test and records their latencies per operation.
+ * <p>
+ * In the closed-loop mode, every user sends its next request as soon as it got the response to the previous one,
+ * so the load adapts to the speed of the backend, and the throughput is the capacity for that many users.
+ * In the open-loop mode, requests are sent at a fixed rate, no matter how many are still pending, like requests of
+ * independent clients. The latency of a request is measured from the time it was due, not the time it was sent,
+ * so that a backend, which falls behind, shows in the latencies instead of lowering the rate.
+ * </p>
+ */
+final class LoadGenerator {
+  private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+  private final HttpClient client;
+  private final Workload workload;
+  private final LoadTestOptions options;
+  private final Operation[] operations;
+  private final int[] cumulativeWeights;
+  private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+  private long measureStart;
+  private long end;
+
+  LoadGenerator(HttpClient client, Workload workload, LoadTestOptions options) {
+    this.client = client;
+    this.workload = workload;
+    this.options = options;
+    List<Operation> weighted = new ArrayList<>();
+    List<Integer> cumulative = new ArrayList<>();
+    int total = 0;
+    for (Map.Entry<Operation, Integer> weight : options.mix().entrySet()) {
+      if (weight.getValue() > 0) {
+        total += weight.getValue();
+        weighted.add(weight.getKey());
+        cumulative.add(total);
+      }
+    }
+    this.operations = weighted.toArray(Operation[]::new);
+    this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+    for (Operation operation : Operation.values()) {
+      recorders.put(operation, new LatencyRecorder());
+    }
+  }
+
+  /**
+   * Send requests for the warmup and the measured time.
+   *
+   * @return the recorded latencies of the measured time, per operation
+   * @throws InterruptedException if the thread was interrupted while waiting for the users or pending requests
+   */
+  Map<Operation, LatencyRecorder> run() throws InterruptedException {
+    long start = System.nanoTime();
+    measureStart = start + options.warmup().toNanos();
+    end = measureStart + options.duration().toNanos();
+    if (options.openLoop()) {
+      runOpenLoop(start);
+    } else {
+      runClosedLoop();
+    }
+    return recorders;
+  }
+
+  private void runClosedLoop() throws InterruptedException {
+    SplittableRandom seed = new SplittableRandom(options.seed());
+    List<Thread> users = new ArrayList<>();
+    for (int user = 0; user < options.users(); user++) {
+      SplittableRandom random = seed.split();
+      Thread thread = new Thread(() -> {
+        while (System.nanoTime() < end) {
+          Workload.Call call = workload.next(pick(random), random);
+          long sent = System.nanoTime();
+          HttpResponse<String> response = null;
+          try {
+            response = client.send(call.request(), HttpResponse.BodyHandlers.ofString());
+          } catch (IOException e) {
+            // counted as error below
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+          completed(call, sent, response);
+        }
+      }, "user-" + user);
+      thread.start();
+      users.add(thread);
+    }
+    for (Thread user : users) {
+      user.join();
+    }
+  }
+
+  private void runOpenLoop(long start) throws InterruptedException {
+    SplittableRandom random = new SplittableRandom(options.seed());
+    Semaphore inFlight = new Semaphore(options.maxInFlight());
+    double interval = 1e9 / options.rate();
+    for (long request = 0; ; request++) {
+      long due = start + (long) (request * interval);
+      if (due >= end) {
+        break;
+      }
+      long wait = due - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      Operation operation = pick(random);
+      if (!inFlight.tryAcquire()) {
+        if (due >= measureStart) {
+          recorders.get(operation).drop();
+        }
+        continue;
+      }
+      Workload.Call call = workload.next(operation, random);
+      client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+          .whenComplete((response, failure) -> {
+            try {
+              completed(call, due, response);
+            } finally {
+              inFlight.release();
+            }
+          });
+    }
+    if (!inFlight.tryAcquire(options.maxInFlight(), DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+      System.err.println("Requests still pending after " + DRAIN_TIMEOUT_SECONDS + " s are not reported");
+    }
+  }
+
+  private void completed(Workload.Call call, long start, HttpResponse<String> response) {
+    long latency = System.nanoTime() - start;
+    if (start >= measureStart && start < end) {
+      recorders.get(call.operation()).record(latency, response != null && Workload.isSuccess(response.statusCode()));
+    }
+    workload.completed(call, response);
+  }
+
+  private Operation pick(SplittableRandom random) {
+    int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+    for (int i = 0; i < cumulativeWeights.length; i++) {
+      if (value < cumulativeWeights[i]) {
+        return operations[i];
+      }
+    }
+    throw new IllegalStateException("Weight out of range: " + value);
+  }
+}
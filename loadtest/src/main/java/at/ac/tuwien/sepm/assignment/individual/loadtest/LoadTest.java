@@ -0,0 +1,88 @@
+package at.ac.tuwien.sepm.assignment.individual.loadtest;
+
+import at.ac.tuwien.sepm.assignment.individual.SepmIndividualAssignmentApplication;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs a load test against the REST API and prints throughput and latencies per operation.
+ * Without a {@code target}, the backend is started in this JVM on an in-memory H2 database,
+ * filled by the synthetic data generator; the load generator then shares the CPU with the backend.
+ */
+public final class LoadTest {
+
+  private LoadTest() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options;
+    try {
+      options = LoadTestOptions.parse(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.print(LoadTestOptions.USAGE);
+      System.exit(2);
+      return;
+    }
+
+    ConfigurableApplicationContext backend = null;
+    URI target = options.target();
+    if (target == null) {
+      backend = startBackend(options);
+      target = URI.create("http://localhost:" + backend.getEnvironment().getProperty("local.server.port"));
+    }
+    try {
+      HttpClient client = HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .connectTimeout(Duration.ofSeconds(10))
+          .build();
+      Workload workload = Workload.discover(client, target, options.generations());
+      System.out.printf("Load test against %s with %d horses and %d owners: %s, %s warmup, %s measured%n",
+          target, workload.horseCount(), workload.ownerCount(),
+          options.openLoop() ? options.rate() + " requests/s (open loop)" : options.users() + " users (closed loop)",
+          options.warmup(), options.duration());
+      Map<Operation, LatencyRecorder> recorders = new LoadGenerator(client, workload, options).run();
+      report(recorders, options.duration());
+    } finally {
+      if (backend != null) {
+        backend.close();
+      }
+    }
+  }
+
+  private static ConfigurableApplicationContext startBackend(LoadTestOptions options) {
+    // passed as command line arguments, which take precedence over the application.yml of the backend
+    return new SpringApplicationBuilder(SepmIndividualAssignmentApplication.class).run(
+        "--server.port=0",
+        "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+        "--spring.profiles.active=datagen",
+        "--datagen.mode=synthetic",
+        "--datagen.synthetic.horses=" + options.horses(),
+        "--datagen.synthetic.owners=" + options.owners(),
+        // every request is logged at level info, which would drown the report
+        "--logging.level.root=WARN");
+  }
+
+  private static void report(Map<Operation, LatencyRecorder> recorders, Duration duration) {
+    System.out.printf("%n%-12s %9s %7s %7s %10s %9s %9s %9s %9s%n",
+        "operation", "requests", "errors", "dropped", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+    LatencyRecorder total = new LatencyRecorder();
+    for (Map.Entry<Operation, LatencyRecorder> entry : recorders.entrySet()) {
+      LatencyRecorder.Summary summary = entry.getValue().summarize(duration);
+      if (summary.count() + summary.dropped() > 0) {
+        print(entry.getKey().key(), summary);
+        entry.getValue().addTo(total);
+      }
+    }
+    print("total", total.summarize(duration));
+  }
+
+  private static void print(String name, LatencyRecorder.Summary summary) {
+    System.out.printf("%-12s %9d %7d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n", name, summary.count(), summary.errors(),
+        summary.dropped(), summary.throughput(), summary.p50(), summary.p99(), summary.p999(), summary.max());
+  }
+}
@@ -0,0 +1,117 @@
+package at.ac.tuwien.sepm.assignment.individual.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Options of a load test, given as {@code key=value} arguments on the command line.
+ *
+ * @param target the URL of the backend to test, or {@code null} to start the backend in this JVM
+ * @param openLoop whether requests are sent at a fixed {@code rate}, instead of by {@code users} waiting for their responses
+ * @param rate the number of requests per second in the open-loop mode
+ * @param users the number of concurrent users in the closed-loop mode
+ * @param maxInFlight the number of requests, that may be pending at once in the open-loop mode;
+ *                    requests due beyond it are dropped and reported
+ * @param warmup the time, that requests are sent without being measured
+ * @param duration the measured time
+ * @param mix the relative weight of every operation
+ * @param horses the number of horses generated, when starting the backend
+ * @param owners the number of owners generated, when starting the backend
+ * @param generations the number of generations of a requested family tree
+ * @param seed the seed of the random choices
+ */
+record LoadTestOptions(
+    URI target,
+    boolean openLoop,
+    double rate,
+    int users,
+    int maxInFlight,
+    Duration warmup,
+    Duration duration,
+    Map<Operation, Integer> mix,
+    int horses,
+    int owners,
+    int generations,
+    long seed
+) {
+
+  static final String USAGE = """
+      Usage: java -jar target/loadtest.jar [key=value ...]
+        target=URL         backend to test, e.g. http://localhost:8080 (default: start the backend in this JVM)
+        mode=open|closed   fixed arrival rate or a fixed number of users (default: closed)
+        rate=N             requests per second in open mode (default: 200)
+        users=N            concurrent users in closed mode (default: 8)
+        maxInFlight=N      pending requests in open mode, before requests are dropped (default: 1000)
+        warmup=S           unmeasured seconds before the measurement (default: 10)
+        duration=S         measured seconds (default: 30)
+        mix=op:w,...       weights of search, detail, familytree, create, update, delete, ownersearch, ownercreate
+                           (default: search:40,detail:25,familytree:15,create:6,update:5,delete:3,ownersearch:5,ownercreate:1)
+        horses=N owners=N  data generated when starting the backend (default: 10000 horses, 1000 owners)
+        generations=N      generations of a requested family tree (default: 5)
+        seed=N             seed of the random choices (default: 1)
+      """;
+
+  static LoadTestOptions parse(String[] args) {
+    Map<String, String> values = new HashMap<>();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (separator < 0) {
+        throw new IllegalArgumentException("Argument is not of the form key=value: " + arg);
+      }
+      values.put(arg.substring(0, separator), arg.substring(separator + 1));
+    }
+
+    Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    if (values.containsKey("mix")) {
+      for (Operation operation : Operation.values()) {
+        mix.put(operation, 0);
+      }
+      for (String entry : values.remove("mix").split(",")) {
+        String[] weight = entry.split(":");
+        mix.put(Operation.ofKey(weight[0].trim()), Integer.parseInt(weight[1].trim()));
+      }
+    } else {
+      for (Operation operation : Operation.values()) {
+        mix.put(operation, operation.defaultWeight());
+      }
+    }
+    if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+      throw new IllegalArgumentException("The mix must contain at least one operation with a positive weight");
+    }
+
+    String target = values.remove("target");
+    String mode = values.getOrDefault("mode", "closed");
+    values.remove("mode");
+    if (!mode.equals("open") && !mode.equals("closed")) {
+      throw new IllegalArgumentException("Unknown mode: " + mode);
+    }
+    LoadTestOptions options = new LoadTestOptions(
+        target == null ? null : URI.create(target),
+        mode.equals("open"),
+        Double.parseDouble(remove(values, "rate", "200")),
+        Integer.parseInt(remove(values, "users", "8")),
+        Integer.parseInt(remove(values, "maxInFlight", "1000")),
+        Duration.ofSeconds(Long.parseLong(remove(values, "warmup", "10"))),
+        Duration.ofSeconds(Long.parseLong(remove(values, "duration", "30"))),
+        mix,
+        Integer.parseInt(remove(values, "horses", "10000")),
+        Integer.parseInt(remove(values, "owners", "1000")),
+        Integer.parseInt(remove(values, "generations", "5")),
+        Long.parseLong(remove(values, "seed", "1")));
+    if (!values.isEmpty()) {
+      throw new IllegalArgumentException("Unknown options: " + values.keySet());
+    }
+    if (options.rate() <= 0 || options.users() < 1 || options.maxInFlight() < 1 || options.duration().isZero()) {
+      throw new IllegalArgumentException("Rate, users, maxInFlight and duration must be positive");
+    }
+    return options;
+  }
+
+  private static String remove(Map<String, String> values, String key, String defaultValue) {
+    String value = values.remove(key);
+    return value == null ? defaultValue : value;
+  }
+}
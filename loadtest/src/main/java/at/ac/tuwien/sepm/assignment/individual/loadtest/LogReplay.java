@@ -0,0 +1,173 @@
+package at.ac.tuwien.sepm.assignment.individual.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays the read requests of a backend log against a test instance, and compares the latencies per endpoint
+ * with the times of the log.
+ * <p>
+ * At a fixed speed, every request is sent at its time in the log, divided by the speed, like in the open-loop mode of
+ * {@link LoadTest}: the latency is measured from that time, and requests due while {@code concurrency} requests
+ * are pending are dropped. With {@code speed=max}, {@code concurrency} requests are kept pending,
+ * in the order of the log, and the latency is measured from sending the request.
+ * </p>
+ * <p>
+ * The times of the log are measured by the backend, the latencies of the replay by the client,
+ * so the replay includes the round trip to the test instance and is a bit slower, even on the same machine.
+ * </p>
+ */
+public final class LogReplay {
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+  private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+  static final String USAGE = """
+      Usage: java -cp target/loadtest.jar at.ac.tuwien.sepm.assignment.individual.loadtest.LogReplay log=FILE target=URL [key=value ...]
+        log=FILE           log file of the backend, e.g. ../backend/log/wendys-friends.log
+        target=URL         test instance to replay against, e.g. http://localhost:8080
+        speed=N|max        speed relative to the log, e.g. 1 or 10, or as fast as possible (default: 1)
+        concurrency=N      requests pending at once (default: 64)
+      """;
+
+  private LogReplay() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (separator < 0) {
+        usage("Argument is not of the form key=value: " + arg);
+        return;
+      }
+      options.put(arg.substring(0, separator), arg.substring(separator + 1));
+    }
+    String log = options.remove("log");
+    String target = options.remove("target");
+    String speedOption = options.getOrDefault("speed", "1");
+    options.remove("speed");
+    String concurrencyOption = options.getOrDefault("concurrency", "64");
+    options.remove("concurrency");
+    if (log == null || target == null || !options.isEmpty()) {
+      usage(log == null || target == null ? "Options log and target are required" : "Unknown options: " + options.keySet());
+      return;
+    }
+    double speed = speedOption.equals("max") ? Double.POSITIVE_INFINITY : Double.parseDouble(speedOption);
+    int concurrency = Integer.parseInt(concurrencyOption);
+    if (speed <= 0 || concurrency < 1) {
+      usage("Speed and concurrency must be positive");
+      return;
+    }
+
+    // only read requests are replayed, so the test instance can be replayed against repeatedly
+    List<AccessLog.Request> requests = AccessLog.read(Path.of(log)).stream()
+        .filter(request -> request.method().equals("GET"))
+        .toList();
+    if (requests.isEmpty()) {
+      usage("No GET requests found in " + log);
+      return;
+    }
+    Duration logged = Duration.ofNanos(Math.max(requests.get(requests.size() - 1).arrival(), 1));
+    System.out.printf("Replaying %d GET requests of %.1f s against %s at %s speed%n",
+        requests.size(), seconds(logged), target, speed == Double.POSITIVE_INFINITY ? "maximum" : speed + "x");
+
+    Map<String, Endpoint> endpoints = new TreeMap<>();
+    for (AccessLog.Request request : requests) {
+      endpoints.computeIfAbsent(request.endpoint(), endpoint -> new Endpoint())
+          .original.record((long) (request.millis() * 1e6), Workload.isSuccess(request.status()));
+    }
+    HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    long start = System.nanoTime();
+    replay(client, URI.create(target), requests, endpoints, speed, concurrency);
+    Duration replayed = Duration.ofNanos(System.nanoTime() - start);
+    report(endpoints, logged, replayed);
+  }
+
+  private static void replay(HttpClient client, URI target, List<AccessLog.Request> requests, Map<String, Endpoint> endpoints,
+                             double speed, int concurrency) throws InterruptedException {
+    Semaphore pending = new Semaphore(concurrency);
+    long start = System.nanoTime();
+    for (AccessLog.Request request : requests) {
+      Endpoint endpoint = endpoints.get(request.endpoint());
+      long due;
+      if (speed == Double.POSITIVE_INFINITY) {
+        pending.acquire();
+        due = System.nanoTime();
+      } else {
+        due = start + (long) (request.arrival() / speed);
+        long wait = due - System.nanoTime();
+        if (wait > 0) {
+          LockSupport.parkNanos(wait);
+        }
+        if (!pending.tryAcquire()) {
+          endpoint.replay.drop();
+          continue;
+        }
+      }
+      HttpRequest httpRequest = HttpRequest.newBuilder(target.resolve(request.uri()))
+          .timeout(REQUEST_TIMEOUT)
+          .header("Accept", "application/json")
+          .build();
+      client.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding())
+          .whenComplete((response, failure) -> {
+            long latency = System.nanoTime() - due;
+            endpoint.replay.record(latency, response != null && Workload.isSuccess(response.statusCode()));
+            if (response == null || response.statusCode() != request.status()) {
+              endpoint.statusChanged.incrementAndGet();
+            }
+            pending.release();
+          });
+    }
+    if (!pending.tryAcquire(concurrency, DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+      System.err.println("Requests still pending after " + DRAIN_TIMEOUT_SECONDS + " s are not reported");
+    }
+  }
+
+  private static void report(Map<String, Endpoint> endpoints, Duration logged, Duration replayed) {
+    System.out.printf("%n%-40s %8s | %9s %9s %9s | %9s %9s %9s | %7s %7s %7s%n", "endpoint", "requests",
+        "log p50", "log p99", "log p999", "p50 ms", "p99 ms", "p999 ms", "errors", "dropped", "status");
+    for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+      LatencyRecorder.Summary original = entry.getValue().original.summarize(logged);
+      LatencyRecorder.Summary replay = entry.getValue().replay.summarize(replayed);
+      System.out.printf("%-40s %8d | %9.2f %9.2f %9.2f | %9.2f %9.2f %9.2f | %7d %7d %7d%n", entry.getKey(),
+          original.count(), original.p50(), original.p99(), original.p999(), replay.p50(), replay.p99(), replay.p999(),
+          replay.errors(), replay.dropped(), entry.getValue().statusChanged.get());
+    }
+    System.out.printf("%nThe log covers %.1f s, the replay took %.1f s. The status column counts responses,"
+        + " whose status differs from the log.%n", seconds(logged), seconds(replayed));
+  }
+
+  private static double seconds(Duration duration) {
+    return duration.toNanos() / 1e9;
+  }
+
+  private static void usage(String message) {
+    System.err.println(message);
+    System.err.print(USAGE);
+    System.exit(2);
+  }
+
+  /**
+   * The latencies of the log and of the replay of one endpoint.
+   */
+  private static final class Endpoint {
+    private final LatencyRecorder original = new LatencyRecorder();
+    private final LatencyRecorder replay = new LatencyRecorder();
+    private final AtomicLong statusChanged = new AtomicLong();
+  }
+}
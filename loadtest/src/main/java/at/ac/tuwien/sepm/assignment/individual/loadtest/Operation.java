@@ -0,0 +1,43 @@
+package at.ac.tuwien.sepm.assignment.individual.loadtest;
+
+/**
+ * The calls of the REST API, that the load test sends, with their default share of the traffic.
+ */
+enum Operation {
+  SEARCH_HORSES("search", 40),
+  HORSE_DETAIL("detail", 25),
+  FAMILY_TREE("familytree", 15),
+  CREATE_HORSE("create", 6),
+  UPDATE_HORSE("update", 5),
+  DELETE_HORSE("delete", 3),
+  SEARCH_OWNERS("ownersearch", 5),
+  CREATE_OWNER("ownercreate", 1);
+
+  private final String key;
+  private final int defaultWeight;
+
+  Operation(String key, int defaultWeight) {
+    this.key = key;
+    this.defaultWeight = defaultWeight;
+  }
+
+  /**
+   * The name of the operation in the {@code mix} option and in the report.
+   */
+  String key() {
+    return key;
+  }
+
+  int defaultWeight() {
+    return defaultWeight;
+  }
+
+  static Operation ofKey(String key) {
+    for (Operation operation : values()) {
+      if (operation.key.equals(key)) {
+        return operation;
+      }
+    }
+    throw new IllegalArgumentException("Unknown operation: " + key);
+  }
+}
@@ -0,0 +1,244 @@
+package at.ac.tuwien.sepm.assignment.individual.loadtest;
+
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseCreateDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseDetailDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.HorseListDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.OwnerCreateDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.OwnerDto;
+import at.ac.tuwien.sepm.assignment.individual.dto.ParentDto;
+import at.ac.tuwien.sepm.assignment.individual.type.Sex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds the requests of the operations from the data of the backend.
+ * <p>
+ * Reads only use horses and owners, that existed before the load test. Updates and deletes only use horses,
+ * that the load test created itself, so that the data the reads depend on stays the same.
+ * If there is no created horse left to update or delete, a horse is created instead.
+ * The workload is shared by all users, the random choices are made with the random of the calling user.
+ * </p>
+ */
+final class Workload {
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+  private static final int PAGE_SIZE = 20;
+  private static final int DISCOVERED_HORSES = 10_000;
+  private static final int DISCOVERED_OWNERS = 1_000;
+
+  /**
+   * A request of an operation.
+   *
+   * @param operation the operation, whose latency the request counts towards
+   * @param request the HTTP request
+   * @param horse the created horse, that the request updates or deletes, otherwise {@code null}
+   */
+  record Call(Operation operation, HttpRequest request, HorseDetailDto horse) {
+  }
+
+  private final URI target;
+  private final ObjectMapper objectMapper;
+  private final int generations;
+  private final List<HorseListDto> horses;
+  private final List<HorseListDto> mares;
+  private final List<HorseListDto> stallions;
+  private final List<OwnerDto> owners;
+  private final ConcurrentLinkedDeque<HorseDetailDto> created = new ConcurrentLinkedDeque<>();
+  private final AtomicLong sequence = new AtomicLong();
+
+  private Workload(URI target, ObjectMapper objectMapper, int generations, List<HorseListDto> horses, List<OwnerDto> owners) {
+    this.target = target;
+    this.objectMapper = objectMapper;
+    this.generations = generations;
+    this.horses = horses;
+    this.mares = horses.stream().filter(horse -> horse.sex() == Sex.FEMALE).toList();
+    this.stallions = horses.stream().filter(horse -> horse.sex() == Sex.MALE).toList();
+    this.owners = owners;
+  }
+
+  /**
+   * Create the workload from the horses and owners, that the backend at {@code target} returns.
+   *
+   * @param client the client to query the backend with
+   * @param target the URL of the backend
+   * @param generations the number of generations of a requested family tree
+   * @return the workload
+   * @throws IOException if the backend could not be queried
+   * @throws InterruptedException if the thread was interrupted while querying the backend
+   */
+  static Workload discover(HttpClient client, URI target, int generations) throws IOException, InterruptedException {
+    ObjectMapper objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    String horses = client.send(get(target, "/horses?maxAmount=" + DISCOVERED_HORSES),
+        HttpResponse.BodyHandlers.ofString()).body();
+    String owners = client.send(get(target, "/owners?maxAmount=" + DISCOVERED_OWNERS),
+        HttpResponse.BodyHandlers.ofString()).body();
+    Workload workload = new Workload(target, objectMapper, generations,
+        List.of(objectMapper.readValue(horses, HorseListDto[].class)),
+        List.of(objectMapper.readValue(owners, OwnerDto[].class)));
+    if (workload.mares.isEmpty() || workload.stallions.isEmpty() || workload.owners.isEmpty()) {
+      throw new IllegalStateException("The backend at " + target + " needs at least a mare, a stallion and an owner");
+    }
+    return workload;
+  }
+
+  int horseCount() {
+    return horses.size();
+  }
+
+  int ownerCount() {
+    return owners.size();
+  }
+
+  /**
+   * Build the request of {@code operation}.
+   *
+   * @param operation the operation to call
+   * @param random the random of the calling user
+   * @return the call, whose operation differs from {@code operation}, if that could not be called
+   */
+  Call next(Operation operation, SplittableRandom random) {
+    return switch (operation) {
+      case SEARCH_HORSES -> new Call(operation, get(target, searchQuery(random)), null);
+      case HORSE_DETAIL -> new Call(operation, get(target, "/horses/" + any(horses, random).id()), null);
+      case FAMILY_TREE -> new Call(operation,
+          get(target, "/horses/" + any(horses, random).id() + "/familytree/" + generations), null);
+      case CREATE_HORSE -> new Call(operation, send("POST", "/horses", newHorse(random)), null);
+      case UPDATE_HORSE -> {
+        HorseDetailDto horse = created.pollFirst();
+        if (horse == null) {
+          yield next(Operation.CREATE_HORSE, random);
+        }
+        HorseDetailDto update = new HorseDetailDto(horse.id(), horse.name(), "Updated " + sequence.incrementAndGet(),
+            horse.dateOfBirth(), horse.sex(), horse.owner(), horse.mother(), horse.father());
+        yield new Call(operation, send("PUT", "/horses/" + horse.id(), update), horse);
+      }
+      case DELETE_HORSE -> {
+        HorseDetailDto horse = created.pollFirst();
+        if (horse == null) {
+          yield next(Operation.CREATE_HORSE, random);
+        }
+        yield new Call(operation, HttpRequest.newBuilder(target.resolve("/horses/" + horse.id()))
+            .timeout(REQUEST_TIMEOUT)
+            .DELETE()
+            .build(), horse);
+      }
+      case SEARCH_OWNERS -> new Call(operation,
+          get(target, "/owners?maxAmount=10&name=" + encode(prefix(any(owners, random).lastName()))), null);
+      case CREATE_OWNER -> {
+        long number = sequence.incrementAndGet();
+        yield new Call(operation, send("POST", "/owners",
+            new OwnerCreateDto("Load", "Test " + number, "load.test." + number + "." + random.nextLong() + "@example.com")),
+            null);
+      }
+    };
+  }
+
+  /**
+   * Keep track of the horses, that the load test created, updated and deleted.
+   *
+   * @param call the call, that completed
+   * @param response the response, or {@code null} if the call failed
+   */
+  void completed(Call call, HttpResponse<String> response) {
+    boolean success = response != null && isSuccess(response.statusCode());
+    switch (call.operation()) {
+      case CREATE_HORSE -> {
+        if (success) {
+          created.addLast(read(response.body()));
+        }
+      }
+      case UPDATE_HORSE -> created.addLast(success ? read(response.body()) : call.horse());
+      case DELETE_HORSE -> {
+        if (!success) {
+          created.addLast(call.horse());
+        }
+      }
+      default -> {
+      }
+    }
+  }
+
+  static boolean isSuccess(int statusCode) {
+    return statusCode >= 200 && statusCode < 300;
+  }
+
+  private String searchQuery(SplittableRandom random) {
+    // the shapes of the searches, that the frontend sends most
+    return "/horses?maxAmount=" + PAGE_SIZE + switch (random.nextInt(3)) {
+      case 0 -> "&name=" + encode(prefix(any(horses, random).name()));
+      case 1 -> "&sex=" + (random.nextBoolean() ? Sex.FEMALE : Sex.MALE) + "&bornBefore=" + any(horses, random).dateOfBirth();
+      default -> "&ownerName=" + encode(prefix(any(owners, random).lastName()));
+    };
+  }
+
+  private HorseCreateDto newHorse(SplittableRandom random) {
+    HorseListDto mother = any(mares, random);
+    HorseListDto father = any(stallions, random);
+    OwnerDto owner = any(owners, random);
+    // born after both parents, but not in the future, so that the data of any generator is accepted
+    LocalDate youngestParent = mother.dateOfBirth().isAfter(father.dateOfBirth()) ? mother.dateOfBirth() : father.dateOfBirth();
+    LocalDate birthday = youngestParent.plusDays(1 + random.nextInt(365));
+    LocalDate today = LocalDate.now();
+    return new HorseCreateDto("Load test " + sequence.incrementAndGet(), "Created by the load test",
+        birthday.isAfter(today) ? today : birthday, random.nextBoolean() ? Sex.FEMALE : Sex.MALE,
+        new OwnerDto(owner.id(), null, null, null),
+        new ParentDto(mother.id(), mother.name()),
+        new ParentDto(father.id(), father.name()));
+  }
+
+  private HttpRequest send(String method, String path, Object body) {
+    try {
+      return HttpRequest.newBuilder(target.resolve(path))
+          .timeout(REQUEST_TIMEOUT)
+          .header("Content-Type", "application/json")
+          .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+          .build();
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not serialize request body", e);
+    }
+  }
+
+  private HorseDetailDto read(String body) {
+    try {
+      return objectMapper.readValue(body, HorseDetailDto.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not parse horse", e);
+    }
+  }
+
+  private static HttpRequest get(URI target, String path) {
+    return HttpRequest.newBuilder(target.resolve(path))
+        .timeout(REQUEST_TIMEOUT)
+        .header("Accept", "application/json")
+        .build();
+  }
+
+  private static <T> T any(List<T> values, SplittableRandom random) {
+    return values.get(random.nextInt(values.size()));
+  }
+
+  private static String prefix(String value) {
+    return value.substring(0, Math.min(3, value.length()));
+  }
+
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,103 @@
+package at.ac.tuwien.sepm.assignment.individual.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import at.ac.tuwien.sepm.assignment.individual.loadtest.AccessLog.Request;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AccessLogTest {
+  // lines, that the LogFilter of the backend wrote to its log file
+  private static final String HORSES_ARRIVED = "2026-10-18T11:48:42.339Z r=46947f295a97 ip=127.0.0.1  INFO 12388 --- [http-nio-18080-exec-1]"
+      + " a.a.t.s.a.individual.config.LogFilter    : >>> GET /horses UA=curl/7.88.1";
+  private static final String HORSES_ANSWERED = "2026-10-18T11:48:42.649Z r=46947f295a97 ip=127.0.0.1  INFO 12388 --- [http-nio-18080-exec-1]"
+      + " a.a.t.s.a.individual.config.LogFilter    : <<< GET /horses status=200 time=304.297ms";
+  private static final String HORSE_ARRIVED = "2026-10-18T11:48:42.400Z r=d0d59b9a3813 ip=127.0.0.1  INFO 12388 --- [http-nio-18080-exec-2]"
+      + " a.a.t.s.a.individual.config.LogFilter    : >>> GET /horses/1 UA=curl/7.88.1";
+  private static final String HORSE_ANSWERED = "2026-10-18T11:48:42.748Z r=d0d59b9a3813 ip=127.0.0.1  WARN 12388 --- [http-nio-18080-exec-2]"
+      + " a.a.t.s.a.individual.config.LogFilter    : <<< GET /horses/1 status=404 time=54.407ms";
+  private static final String SEARCH_ARRIVED = "2026-10-18T11:48:42.868Z r=020bad78da79 ip=  INFO 12388 --- [http-nio-18080-exec-4]"
+      + " a.a.t.s.a.individual.config.LogFilter    : >>> GET /horses?name=a UA=curl/7.88.1";
+  private static final String SEARCH_ANSWERED = "2026-10-18T11:48:42.891Z r=020bad78da79 ip=  INFO 12388 --- [http-nio-18080-exec-4]"
+      + " a.a.t.s.a.individual.config.LogFilter    : <<< GET /horses?name=a status=200 time=22.368ms";
+  private static final String OWNER_ANSWERED = "2026-10-18T11:48:42.937Z r=6f5c50b0aea4 ip=127.0.0.1  WARN 12388 --- [http-nio-18080-exec-6]"
+      + " a.a.t.s.a.individual.config.LogFilter    : <<< GET /owners/999 status=404 time=15.15ms";
+
+  @TempDir
+  Path directory;
+
+  @Test
+  public void readsTheFractionalTimeOfAnAnsweredRequest() throws IOException {
+    // given
+    Path log = log(HORSES_ARRIVED, HORSES_ANSWERED);
+
+    // when
+    List<Request> requests = AccessLog.read(log);
+
+    // then
+    assertThat(requests).containsExactly(new Request(0, "GET", "/horses", 200, 304.297));
+  }
+
+  @Test
+  public void readsRequestsWithoutClientAddress() throws IOException {
+    // given
+    Path log = log(SEARCH_ARRIVED, SEARCH_ANSWERED);
+
+    // when
+    List<Request> requests = AccessLog.read(log);
+
+    // then
+    assertThat(requests).containsExactly(new Request(0, "GET", "/horses?name=a", 200, 22.368));
+  }
+
+  @Test
+  public void matchesInterleavedLinesByTheirRequestId() throws IOException {
+    // given
+    Path log = log(HORSES_ARRIVED, HORSE_ARRIVED, HORSES_ANSWERED, HORSE_ANSWERED);
+
+    // when
+    List<Request> requests = AccessLog.read(log);
+
+    // then the arrivals are those of the >>> lines
+    assertThat(requests).containsExactly(
+        new Request(0, "GET", "/horses", 200, 304.297),
+        new Request(61_000_000, "GET", "/horses/1", 404, 54.407));
+  }
+
+  @Test
+  public void calculatesTheArrivalOfAnAnswerWithoutItsRequestLine() throws IOException {
+    // given
+    Path log = log(HORSES_ARRIVED, HORSES_ANSWERED, OWNER_ANSWERED);
+
+    // when
+    List<Request> requests = AccessLog.read(log);
+
+    // then the owner arrived 15.15ms before it was answered, at 11:48:42.92185
+    assertThat(requests).containsExactly(
+        new Request(0, "GET", "/horses", 200, 304.297),
+        new Request(582_850_000, "GET", "/owners/999", 404, 15.15));
+  }
+
+  @Test
+  public void skipsLinesOfOtherLoggers() throws IOException {
+    // given
+    Path log = log("2026-10-18T11:48:40.105Z r= ip=  INFO 12388 --- [main] o.s.b.w.embedded.tomcat.TomcatWebServer  :"
+            + " Tomcat started on port(s): 18080 (http) with context path ''",
+        HORSES_ARRIVED,
+        "java.lang.IllegalStateException: <<< GET /horses status=500 time=1ms",
+        HORSES_ANSWERED);
+
+    // when
+    List<Request> requests = AccessLog.read(log);
+
+    // then
+    assertThat(requests).containsExactly(new Request(0, "GET", "/horses", 200, 304.297));
+  }
+
+  private Path log(String... lines) throws IOException {
+    return Files.write(directory.resolve("wendys-friends.log"), List.of(lines));
+  }
+}